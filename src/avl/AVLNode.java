@@ -6,6 +6,8 @@ public class AVLNode<T extends Comparable<T>> {
 	private AVLNode<T> left;
 	private AVLNode<T> right;
 	private int height;
+	// Number of nodes of the subtree whose root is this node
+	private int size = 1;
 
 	public AVLNode(T element, AVLNode<T> left, AVLNode<T> right) {
 		if(element == null)
@@ -13,6 +15,7 @@ public class AVLNode<T extends Comparable<T>> {
 		this.element = element;
 		this.left = left;
 		this.right = right;
+		updateSize();
 	}
 
 	public AVLNode(T element) {
@@ -85,6 +88,30 @@ public class AVLNode<T extends Comparable<T>> {
 			this.height = getMaxHeight() + 1;
 	}
 
+	/**
+	 * Returns the number of nodes of the subtree whose root is this node
+	 * @return
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Updates the size of the current node from the sizes of its children
+	 */
+	public void updateSize() {
+		this.size = 1 + sizeOf(getLeft()) + sizeOf(getRight());
+	}
+
+	/**
+	 * Returns the size of a subtree, 0 for an empty one
+	 * @param node root of the subtree, may be null
+	 * @return int number of nodes of the subtree
+	 */
+	public static int sizeOf(AVLNode<?> node) {
+		return node == null ? 0 : node.getSize();
+	}
+
 	/**
 	 * Local method used when the node has two children to get the highest height
 	 * among both children
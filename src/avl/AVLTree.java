@@ -1,8 +1,17 @@
 package avl;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
-public class AVLTree<T extends Comparable<T>> {
+public class AVLTree<T extends Comparable<T>> implements Iterable<T> {
 
 	/**
 	 * AVLNode root of the BSTree
@@ -15,43 +24,50 @@ public class AVLTree<T extends Comparable<T>> {
 	 * @param element
 	 */
 	public void add(T element) {
-		if (element == null)
-			throw new IllegalArgumentException("Element to be added can not be null");
-		if (search(element))
+		if (!addIfAbsent(element))
 			throw new IllegalArgumentException("Given element already exist in the tree");
-
-		root = add(element, root);
 	}
 
 	/**
-	 * Recursive call to add an element to the BSTree
+	 * Adds the element if it is not already in the tree. The tree is descended
+	 * once, comparing the element once per level, and the path is kept in a stack
+	 * to go up it without recursion
 	 * 
 	 * @param element {@link T} to be added
-	 * @param theRoot {@link AVLNode} current subtree root
-	 * @return
+	 * @return true if the element was added. False if it was already contained
 	 */
-	private AVLNode<T> add(T element, AVLNode<T> theRoot) {
-		if (theRoot == null) {
-			return new AVLNode<T>(element);
-		}
-
-		if (element.compareTo(theRoot.getElement()) == 0) {
-			throw new RuntimeException("Given element already present in the tree");
+	public boolean addIfAbsent(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Element to be added can not be null");
+		if (root == null) {
+			root = new AVLNode<T>(element);
+			return true;
 		}
 
-		else if (element.compareTo(theRoot.getElement()) < 0) {
-			theRoot.setLeft(add(element, theRoot.getLeft()));
-		}
+		Deque<AVLNode<T>> path = new ArrayDeque<AVLNode<T>>();
+		AVLNode<T> node = root;
+		while (true) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0)
+				return false;
 
-		else if (element.compareTo(theRoot.getElement()) > 0) {
-			theRoot.setRight(add(element, theRoot.getRight()));
+			path.push(node);
+			if (comparison < 0) {
+				if (node.getLeft() == null) {
+					node.setLeft(new AVLNode<T>(element));
+					break;
+				}
+				node = node.getLeft();
+			} else {
+				if (node.getRight() == null) {
+					node.setRight(new AVLNode<T>(element));
+					break;
+				}
+				node = node.getRight();
+			}
 		}
-
-		/*
-		 * Acts as a recursive call performing updateHeight on every single node as add
-		 * is a recursive method
-		 */
-		return updateBF(theRoot);
+		rebalance(path);
+		return true;
 	}
 
 	/**
@@ -63,102 +79,141 @@ public class AVLTree<T extends Comparable<T>> {
 	public boolean search(T element) {
 		if (element == null)
 			throw new IllegalArgumentException("Element to be searched can not be null");
-		return search(root, element);
-	}
-
-	/**
-	 * Recursive call to search for an element in the BSTree
-	 * 
-	 * @param theRoot {@link AVLNode} current subtree root
-	 * @param element {@link T} to be searched
-	 * @return
-	 */
-	private boolean search(AVLNode<T> theRoot, T element) {
-		if (theRoot == null) {
-			return false;
-		}
-
-		if (element.compareTo(theRoot.getElement()) == 0) {
-			return true;
-		}
 
-		else if (element.compareTo(theRoot.getElement()) < 0) {
-			return search(theRoot.getLeft(), element);
-		}
-
-		else {
-			return search(theRoot.getRight(), element);
+		AVLNode<T> node = root;
+		while (node != null) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0)
+				return true;
+			node = comparison < 0 ? node.getLeft() : node.getRight();
 		}
+		return false;
 	}
 
 	/**
 	 * Given a element, it removes it from the BSTree
 	 * 
 	 * @param element {@link T} to be removed
-	 * @return {@link AVLNode} node removed
 	 */
 	public void remove(T element) {
-		if (element == null)
-			throw new IllegalArgumentException("Element to be removed can not be null");
-		if (!search(element))
+		if (!removeIfPresent(element))
 			throw new IllegalArgumentException("Given element does not exist in the tree");
-
-		root = remove(root, element);
 	}
 
 	/**
-	 * Recursive call to remove an element in the BSTree
+	 * Removes the element if it is in the tree. The tree is descended once,
+	 * comparing the element once per level, and the path is kept in a stack to go
+	 * up it without recursion
 	 * 
-	 * Once reached element found stage, return statement means what node with
-	 * element to be removed [current theRoot] will be replaced by (null || other
-	 * node)
+	 * A node with two children takes the max element of its left subtree, and the
+	 * node that held it is removed instead. It is the rightmost one of the
+	 * subtree, so no element is compared to find it.
 	 * 
-	 * @param theRoot {@link AVLNode} current subtree root
 	 * @param element {@link T} to be removed
-	 * @return {@link AVLNode} node removed
+	 * @return true if the element was removed. False if it was not contained
 	 */
-	private AVLNode<T> remove(AVLNode<T> theRoot, T element) {
-		if (theRoot == null)
-			throw new IllegalArgumentException("Node to be removed not present in the tree");
+	public boolean removeIfPresent(T element) {
 		if (element == null)
 			throw new IllegalArgumentException("Element to be removed can not be null");
-		/*
-		 * Recursive calls iterating through the BSTree until node with given element is
-		 * found
-		 */
-		if (element.compareTo(theRoot.getElement()) < 0) {
-			theRoot.setLeft(remove(theRoot.getLeft(), element));
-		} else if (element.compareTo(theRoot.getElement()) > 0) {
-			theRoot.setRight(remove(theRoot.getRight(), element));
+
+		Deque<AVLNode<T>> path = new ArrayDeque<AVLNode<T>>();
+		AVLNode<T> node = root;
+		while (node != null) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0)
+				break;
+			path.push(node);
+			node = comparison < 0 ? node.getLeft() : node.getRight();
 		}
-		/* Element to be removed found */
-		else {
-			/* Root has no children nodes */
-			if (theRoot.getRight() == null && theRoot.getLeft() == null) {
-				return null;
-			}
-			/* Root has only left child node */
-			else if (theRoot.getRight() == null) {
-				return theRoot.getLeft(); // Replace theRoot by only left children
-			}
-			/* Root has only right child node */
-			else if (theRoot.getLeft() == null) {
-				return theRoot.getRight(); // Replace theRoot by only right children
-			}
-			/* Root has two child nodes */
-			else {
-				// Assign to root max element node of left subtree
-				theRoot.setElement(getMax(theRoot.getLeft()));
-				// Later remove node with element we just assigned to root
-				theRoot.setLeft(remove(theRoot.getLeft(), theRoot.getElement()));
+		if (node == null)
+			return false;
+
+		/* Node has two child nodes */
+		if (node.getLeft() != null && node.getRight() != null) {
+			path.push(node);
+			AVLNode<T> max = node.getLeft();
+			while (max.getRight() != null) {
+				path.push(max);
+				max = max.getRight();
 			}
+			node.setElement(max.getElement());
+			replace(path.peek(), max, max.getLeft());
 		}
+		/* Node replaced by its only child, or removed if it is a leaf */
+		else {
+			replace(path.peek(), node, node.getLeft() != null ? node.getLeft() : node.getRight());
+		}
+		rebalance(path);
+		return true;
+	}
 
-		/*
-		 * Acts as a recursive call performing updateHeight on every single node as
-		 * remove is a recursive method
-		 */
-		return updateBF(theRoot);
+	/**
+	 * Links a new subtree in place of a node
+	 * 
+	 * @param parent  {@link AVLNode} of the node, null if the node is the root
+	 * @param node    {@link AVLNode} to be replaced
+	 * @param subtree {@link AVLNode} linked in its place, may be null
+	 */
+	private void replace(AVLNode<T> parent, AVLNode<T> node, AVLNode<T> subtree) {
+		if (parent == null)
+			root = subtree;
+		else if (parent.getLeft() == node)
+			parent.setLeft(subtree);
+		else
+			parent.setRight(subtree);
+	}
+
+	/**
+	 * Goes up the path of an add or a remove, from the deepest node to the root,
+	 * rebalancing every node and linking the resulting subtree to its parent
+	 * 
+	 * @param path stack of the nodes from the root to the modified one
+	 */
+	private void rebalance(Deque<AVLNode<T>> path) {
+		while (!path.isEmpty()) {
+			AVLNode<T> node = path.pop();
+			replace(path.peek(), node, updateBF(node));
+		}
+	}
+
+	/**
+	 * Builds a balanced tree with sorted elements in O(n), without rotations. The
+	 * middle element of every range is the root of the subtree of that range.
+	 * 
+	 * @param sorted array of elements in ascending order, without duplicates
+	 * @return new tree with the elements
+	 */
+	public static <T extends Comparable<T>> AVLTree<T> fromSorted(T[] sorted) {
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] == null)
+				throw new IllegalArgumentException("Element can not be null");
+			if (i > 0 && sorted[i - 1].compareTo(sorted[i]) >= 0)
+				throw new IllegalArgumentException("Elements must be sorted without duplicates");
+		}
+
+		AVLTree<T> tree = new AVLTree<T>();
+		tree.root = fromSorted(sorted, 0, sorted.length - 1);
+		return tree;
+	}
+
+	/**
+	 * Recursive call building the subtree of a range of sorted elements. It only
+	 * goes as deep as the balanced tree
+	 * 
+	 * @param sorted array of elements
+	 * @param first  position of the range
+	 * @param last   position of the range, included
+	 * @return {@link AVLNode} root of the subtree, null for an empty range
+	 */
+	private static <T extends Comparable<T>> AVLNode<T> fromSorted(T[] sorted, int first, int last) {
+		if (first > last)
+			return null;
+
+		int middle = (first + last) >>> 1;
+		AVLNode<T> node = new AVLNode<T>(sorted[middle], fromSorted(sorted, first, middle - 1),
+				fromSorted(sorted, middle + 1, last));
+		node.updateHeight();
+		return node;
 	}
 
 	/**
@@ -177,23 +232,24 @@ public class AVLTree<T extends Comparable<T>> {
 				theRoot = doubleLeftRotation(theRoot);
 			}
 			// single left rotation required (with 0 values as well)
-			if (theRoot.getLeft().getBF() == -1 || theRoot.getLeft().getBF() == 0) {
+			else {
 				theRoot = singleLeftRotation(theRoot);
 			}
 		}
 		// right rotation required
-		if (theRoot.getBF() == 2) {
-			// single right rotation required (with 0 values as well)
-			if (theRoot.getRight().getBF() == 1 || theRoot.getRight().getBF() == 0) {
-				theRoot = singleRightRotation(theRoot);
-			}
+		else if (theRoot.getBF() == 2) {
 			// double right rotation required
 			if (theRoot.getRight().getBF() == -1) {
 				theRoot = doubleRightRotation(theRoot);
 			}
+			// single right rotation required (with 0 values as well)
+			else {
+				theRoot = singleRightRotation(theRoot);
+			}
 		}
 
 		theRoot.updateHeight();
+		theRoot.updateSize();
 		return theRoot;
 	}
 
@@ -219,10 +275,13 @@ public class AVLTree<T extends Comparable<T>> {
 		c.setLeft(a);
 		c.setRight(b);
 
-		// We need to update the height of the nodes whose height has changed
+		// We need to update the height and size of the nodes whose subtree has changed
 		b.updateHeight();
 		a.updateHeight();
 		c.updateHeight();
+		b.updateSize();
+		a.updateSize();
+		c.updateSize();
 		
 		return c;
 	}
@@ -249,10 +308,13 @@ public class AVLTree<T extends Comparable<T>> {
 		c.setLeft(b);
 		c.setRight(a);
 
-		// We need to update the height of the nodes whose height has changed
+		// We need to update the height and size of the nodes whose subtree has changed
 		b.updateHeight();
 		a.updateHeight();
 		c.updateHeight();
+		b.updateSize();
+		a.updateSize();
+		c.updateSize();
 		return c;
 	}
 
@@ -275,9 +337,11 @@ public class AVLTree<T extends Comparable<T>> {
 		a.setRight(b.getLeft());
 		b.setLeft(a);
 
-		// We need to update the height of the nodes whose height has changed
+		// We need to update the height and size of the nodes whose subtree has changed
 		a.updateHeight();
 		b.updateHeight();
+		a.updateSize();
+		b.updateSize();
 		
 		return b;
 	}
@@ -301,37 +365,21 @@ public class AVLTree<T extends Comparable<T>> {
 		a.setLeft(b.getRight());
 		b.setRight(a);
 
-		// We need to update the height of the nodes whose height has changed
+		// We need to update the height and size of the nodes whose subtree has changed
 		a.updateHeight();
 		b.updateHeight();
+		a.updateSize();
+		b.updateSize();
 		return b;
 	}
 
 	/**
-	 * RECURSIVE method to obtain the height of a tree without using nodes height
-	 * attribute
+	 * Returns the number of levels of the tree, from the height kept in its root
 	 * 
-	 * @return
+	 * @return 0 for an empty tree, root height + 1 otherwise
 	 */
 	public int getHeight() {
-		return getHeightRec(root);
-	}
-
-	/**
-	 * Recursive call of method to obtain the height of the sub-tree whose root is
-	 * theRoot
-	 * 
-	 * @param theRoot
-	 * @return
-	 */
-	private int getHeightRec(AVLNode<T> theRoot) {
-		if (theRoot == null) {
-			return 0;
-		}
-		int left = getHeightRec(theRoot.getLeft()) + 1;
-		int right = getHeightRec(theRoot.getRight()) + 1;
-
-		return (left > right) ? left : right;
+		return root == null ? 0 : root.getHeight() + 1;
 	}
 
 	/**
@@ -416,8 +464,8 @@ public class AVLTree<T extends Comparable<T>> {
 	/** RECURSIRVE APPROACH TO GET THE BALANCE FACTOR MEAN IN THE TREE **/
 
 	/**
-	 * Method calling two recursive methods. First one will get the sum of all BFs
-	 * in the tree and second one will get the number of nodes in the tree
+	 * Method calling a recursive method to get the sum of all BFs in the tree,
+	 * divided by the number of nodes stored in the root
 	 * 
 	 * @return Balance Factor average in the tree
 	 */
@@ -425,7 +473,7 @@ public class AVLTree<T extends Comparable<T>> {
 		if (root == null)
 			return 0;
 
-		return getBFMeanRec(root) / getNumberOfNodes();
+		return getBFMeanRec(root) / size();
 	}
 
 	private double getBFMeanRec(AVLNode<T> theRoot) {
@@ -440,26 +488,687 @@ public class AVLTree<T extends Comparable<T>> {
 	}
 
 	/**
-	 * Method calling a recursive method to retrieve the number of nodes in the tree
+	 * Returns the number of nodes in the tree
 	 * 
 	 * @return number of nodes in the tree
 	 */
 	public int getNumberOfNodes() {
-		return getNumberOfNodesRec(root);
+		return size();
 	}
 
-	private int getNumberOfNodesRec(AVLNode<T> theRoot) {
-		if (theRoot == null)
+	/** ORDER STATISTICS, USING THE SIZE OF THE SUBTREES **/
+
+	/**
+	 * Returns the number of elements in the tree, stored in its root
+	 * 
+	 * @return number of nodes in the tree
+	 */
+	public int size() {
+		return AVLNode.sizeOf(root);
+	}
+
+	/**
+	 * Returns the number of elements of the tree lower than the given one, which
+	 * is its position in order if it is contained
+	 * 
+	 * @param element {@link T} whose rank is computed, contained or not
+	 * @return number of lower elements
+	 */
+	public int rank(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Element can not be null");
+
+		int rank = 0;
+		AVLNode<T> node = root;
+		while (node != null) {
+			if (element.compareTo(node.getElement()) <= 0) {
+				node = node.getLeft();
+			} else {
+				// The node and its left subtree are lower
+				rank += AVLNode.sizeOf(node.getLeft()) + 1;
+				node = node.getRight();
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the element in the given position of the tree in order
+	 * 
+	 * @param k position, from 0 to size() - 1
+	 * @return {@link T} k-th lowest element
+	 */
+	public T select(int k) {
+		if (k < 0 || k >= size())
+			throw new IllegalArgumentException("Position out of the tree: " + k);
+
+		AVLNode<T> node = root;
+		while (true) {
+			int leftSize = AVLNode.sizeOf(node.getLeft());
+			if (k < leftSize) {
+				node = node.getLeft();
+			} else if (k == leftSize) {
+				return node.getElement();
+			} else {
+				k -= leftSize + 1;
+				node = node.getRight();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of elements between lo and hi, both included
+	 * 
+	 * @param lo {@link T} lowest element of the range
+	 * @param hi {@link T} highest element of the range
+	 * @return number of elements in the range, 0 if lo is greater than hi
+	 */
+	public int countInRange(T lo, T hi) {
+		if (lo == null || hi == null)
+			throw new IllegalArgumentException("Range limits can not be null");
+		if (lo.compareTo(hi) > 0)
 			return 0;
 
-		// Retrieve the number of nodes from left sub tree
-		int numberOfNodes = getNumberOfNodesRec(theRoot.getLeft());
-		// Retrieve the number of nodes from right sub tree
-		numberOfNodes += getNumberOfNodesRec(theRoot.getRight());
-		// Add current node
-		numberOfNodes++;
+		int count = rank(hi) - rank(lo);
+		return search(hi) ? count + 1 : count;
+	}
+
+	/**
+	 * Returns the median of the elements of the tree. With an even number of
+	 * elements, the lower of both middle ones
+	 * 
+	 * @return {@link T} median element, null if the tree is empty
+	 */
+	public T median() {
+		if (root == null)
+			return null;
+		return select((size() - 1) / 2);
+	}
+
+	/** SPLIT, JOIN AND SET OPERATIONS **/
+
+	/* OPERATIONS combining two trees */
+	private static final int UNION = 0;
+	private static final int INTERSECTION = 1;
+	private static final int DIFFERENCE = 2;
+
+	// Minimum number of nodes of both subtrees for a set operation to combine
+	// their left sides in another ForkJoinPool task
+	private static final int SET_OPERATION_PARALLEL_THRESHOLD = 1 << 13;
+
+	/**
+	 * Splits the tree by a key in O(log n). The elements lower than the key stay
+	 * in this tree, the rest are moved to the returned one.
+	 * 
+	 * @param key {@link T} first element of the returned tree, it does not need to
+	 *            be contained
+	 * @return new tree with the elements greater than or equal to the key
+	 */
+	public AVLTree<T> split(T key) {
+		if (key == null)
+			throw new IllegalArgumentException("Key can not be null");
+
+		Split split = split(root, key);
+		root = split.left;
+		AVLTree<T> greater = new AVLTree<T>();
+		greater.root = split.node == null ? split.right : join(null, split.node, split.right);
+		return greater;
+	}
+
+	/**
+	 * Joins two trees and a key between them in O(|height(left) -
+	 * height(right)|). The nodes of both trees are reused, so they are left empty.
+	 * 
+	 * @param left  tree with elements lower than the key
+	 * @param key   {@link T} element between both trees
+	 * @param right tree with elements greater than the key
+	 * @return new tree with the elements of both trees and the key
+	 */
+	public static <T extends Comparable<T>> AVLTree<T> join(AVLTree<T> left, T key, AVLTree<T> right) {
+		if (left == null || key == null || right == null)
+			throw new IllegalArgumentException("Trees and key can not be null");
+		if (left == right)
+			throw new IllegalArgumentException("A tree can not be joined with itself");
+		if (left.ceiling(key) != null || right.floor(key) != null)
+			throw new IllegalArgumentException("Key must be greater than the left tree and lower than the right one");
+
+		AVLTree<T> tree = new AVLTree<T>();
+		tree.root = tree.join(left.root, new AVLNode<T>(key), right.root);
+		left.root = null;
+		right.root = null;
+		return tree;
+	}
+
+	/**
+	 * Adds the elements of another tree to this one in O(m log(n/m + 1)), m being
+	 * the size of the smaller tree. The nodes of the other tree are reused, so it
+	 * is left empty.
+	 * 
+	 * @param other tree to be joined into this one
+	 * @return this tree
+	 */
+	public AVLTree<T> union(AVLTree<T> other) {
+		return union(other, false);
+	}
+
+	/**
+	 * Adds the elements of another tree to this one
+	 * 
+	 * @param other    tree to be joined into this one, it is left empty
+	 * @param parallel true to combine big subtrees in the common ForkJoinPool
+	 * @return this tree
+	 */
+	public AVLTree<T> union(AVLTree<T> other, boolean parallel) {
+		return combine(UNION, other, parallel);
+	}
 
-		return numberOfNodes;
+	/**
+	 * Keeps in this tree only the elements also contained in another one in
+	 * O(m log(n/m + 1)). The other tree is left empty.
+	 * 
+	 * @param other tree to be intersected with this one
+	 * @return this tree
+	 */
+	public AVLTree<T> intersection(AVLTree<T> other) {
+		return intersection(other, false);
+	}
+
+	/**
+	 * Keeps in this tree only the elements also contained in another one
+	 * 
+	 * @param other    tree to be intersected with this one, it is left empty
+	 * @param parallel true to combine big subtrees in the common ForkJoinPool
+	 * @return this tree
+	 */
+	public AVLTree<T> intersection(AVLTree<T> other, boolean parallel) {
+		return combine(INTERSECTION, other, parallel);
+	}
+
+	/**
+	 * Removes from this tree the elements contained in another one in O(m
+	 * log(n/m + 1)). The other tree is left empty.
+	 * 
+	 * @param other tree with the elements to be removed
+	 * @return this tree
+	 */
+	public AVLTree<T> difference(AVLTree<T> other) {
+		return difference(other, false);
+	}
+
+	/**
+	 * Removes from this tree the elements contained in another one
+	 * 
+	 * @param other    tree with the elements to be removed, it is left empty
+	 * @param parallel true to combine big subtrees in the common ForkJoinPool
+	 * @return this tree
+	 */
+	public AVLTree<T> difference(AVLTree<T> other, boolean parallel) {
+		return combine(DIFFERENCE, other, parallel);
+	}
+
+	/**
+	 * Combines the nodes of both trees into this one, leaving the other one empty
+	 * 
+	 * @param operation UNION, INTERSECTION or DIFFERENCE
+	 * @param other     tree to be combined with this one
+	 * @param parallel  true to combine big subtrees in the common ForkJoinPool
+	 * @return this tree
+	 */
+	private AVLTree<T> combine(int operation, AVLTree<T> other, boolean parallel) {
+		if (other == null)
+			throw new IllegalArgumentException("Tree can not be null");
+		if (other == this) {
+			// Nodes can not be split from themselves
+			if (operation == DIFFERENCE)
+				root = null;
+			return this;
+		}
+
+		AVLNode<T> a = root;
+		AVLNode<T> b = other.root;
+		other.root = null;
+		if (parallel)
+			root = ForkJoinPool.commonPool().invoke(new SetOperationTask(operation, a, b));
+		else
+			root = setOperation(operation, a, b, false);
+		return this;
+	}
+
+	/**
+	 * Recursive call combining two subtrees. The root of the first one splits the
+	 * second one, both sides are combined on their own and joined back with the
+	 * root if it belongs to the result. Sides only share nodes with their own
+	 * subtrees, so they can be combined in parallel.
+	 * 
+	 * @param operation UNION, INTERSECTION or DIFFERENCE
+	 * @param a         {@link AVLNode} root of the first subtree
+	 * @param b         {@link AVLNode} root of the second subtree
+	 * @param parallel  true to fork the left side while the subtrees are big
+	 * @return {@link AVLNode} root of the resulting subtree
+	 */
+	private AVLNode<T> setOperation(int operation, AVLNode<T> a, AVLNode<T> b, boolean parallel) {
+		if (a == null)
+			return operation == UNION ? b : null;
+		if (b == null)
+			return operation == INTERSECTION ? null : a;
+
+		boolean fork = parallel && a.getSize() + b.getSize() >= SET_OPERATION_PARALLEL_THRESHOLD;
+		AVLNode<T> aLeft = a.getLeft();
+		AVLNode<T> aRight = a.getRight();
+		Split split = split(b, a.getElement());
+
+		AVLNode<T> left;
+		AVLNode<T> right;
+		if (fork) {
+			SetOperationTask task = new SetOperationTask(operation, aLeft, split.left);
+			task.fork();
+			right = setOperation(operation, aRight, split.right, true);
+			left = task.join();
+		} else {
+			left = setOperation(operation, aLeft, split.left, false);
+			right = setOperation(operation, aRight, split.right, false);
+		}
+
+		boolean contained = split.node != null;
+		boolean kept = operation == UNION || (operation == INTERSECTION ? contained : !contained);
+		return kept ? join(left, a, right) : concat(left, right);
+	}
+
+	/**
+	 * Task combining two subtrees, forking the left sides while they are big
+	 */
+	private class SetOperationTask extends RecursiveTask<AVLNode<T>> {
+		private static final long serialVersionUID = 1L;
+
+		private final int operation;
+		private final AVLNode<T> a;
+		private final AVLNode<T> b;
+
+		private SetOperationTask(int operation, AVLNode<T> a, AVLNode<T> b) {
+			this.operation = operation;
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		protected AVLNode<T> compute() {
+			return setOperation(operation, a, b, true);
+		}
+	}
+
+	/**
+	 * Result of splitting a subtree: the subtrees lower and greater than the key,
+	 * and the node holding the key (its children are not updated)
+	 */
+	private class Split {
+		private AVLNode<T> left;
+		private AVLNode<T> node;
+		private AVLNode<T> right;
+
+		private Split(AVLNode<T> left, AVLNode<T> node, AVLNode<T> right) {
+			this.left = left;
+			this.node = node;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Recursive call splitting a subtree by a key. Every node in the path to the
+	 * key is joined back to one of the sides with its other subtree, and the
+	 * costs of the joins add up to O(log n)
+	 * 
+	 * @param theRoot {@link AVLNode} root of the subtree
+	 * @param key     {@link T} to split the subtree by
+	 * @return split subtree, its node is null if the key is not contained
+	 */
+	private Split split(AVLNode<T> theRoot, T key) {
+		if (theRoot == null)
+			return new Split(null, null, null);
+
+		int comparison = key.compareTo(theRoot.getElement());
+		AVLNode<T> left = theRoot.getLeft();
+		AVLNode<T> right = theRoot.getRight();
+		if (comparison == 0)
+			return new Split(left, theRoot, right);
+
+		Split split;
+		if (comparison < 0) {
+			split = split(left, key);
+			split.right = join(split.right, theRoot, right);
+		} else {
+			split = split(right, key);
+			split.left = join(left, theRoot, split.left);
+		}
+		return split;
+	}
+
+	/**
+	 * Joins two subtrees and a middle node, whose element is between both of
+	 * them. The middle node hangs from the side of the highest subtree where the
+	 * other one has the same height, rebalancing on the way up.
+	 * 
+	 * @param left   {@link AVLNode} root of the lower subtree, may be null
+	 * @param middle {@link AVLNode} node reused as the root of the joined part
+	 * @param right  {@link AVLNode} root of the greater subtree, may be null
+	 * @return {@link AVLNode} root of the joined subtree
+	 */
+	private AVLNode<T> join(AVLNode<T> left, AVLNode<T> middle, AVLNode<T> right) {
+		if (heightOf(left) > heightOf(right) + 1) {
+			left.setRight(join(left.getRight(), middle, right));
+			return updateBF(left);
+		}
+		if (heightOf(right) > heightOf(left) + 1) {
+			right.setLeft(join(left, middle, right.getLeft()));
+			return updateBF(right);
+		}
+		middle.setLeft(left);
+		middle.setRight(right);
+		middle.updateHeight();
+		middle.updateSize();
+		return middle;
+	}
+
+	/**
+	 * Joins two subtrees without a middle element, using the max node of the
+	 * lower one
+	 * 
+	 * @param left  {@link AVLNode} root of the lower subtree, may be null
+	 * @param right {@link AVLNode} root of the greater subtree, may be null
+	 * @return {@link AVLNode} root of the joined subtree
+	 */
+	private AVLNode<T> concat(AVLNode<T> left, AVLNode<T> right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		Split split = splitMax(left);
+		return join(split.left, split.node, right);
+	}
+
+	/**
+	 * Recursive call detaching the max node of a subtree
+	 * 
+	 * @param theRoot {@link AVLNode} root of the subtree, not null
+	 * @return split subtree, with the max node and the rest of the subtree in its
+	 *         left side
+	 */
+	private Split splitMax(AVLNode<T> theRoot) {
+		if (theRoot.getRight() == null)
+			return new Split(theRoot.getLeft(), theRoot, null);
+
+		AVLNode<T> left = theRoot.getLeft();
+		Split split = splitMax(theRoot.getRight());
+		split.left = join(left, theRoot, split.left);
+		return split;
+	}
+
+	/**
+	 * Returns the height of a subtree, -1 for an empty one
+	 * 
+	 * @param node {@link AVLNode} root of the subtree, may be null
+	 * @return int height of the subtree
+	 */
+	private static int heightOf(AVLNode<?> node) {
+		return node == null ? -1 : node.getHeight();
+	}
+
+	/** NAVIGATION AND ORDERED ITERATION **/
+
+	/**
+	 * Returns the greatest element lower than or equal to the given one
+	 * 
+	 * @param element {@link T} to be compared
+	 * @return {@link T} floor element, null if there is none
+	 */
+	public T floor(T element) {
+		return closest(element, true, true);
+	}
+
+	/**
+	 * Returns the lowest element greater than or equal to the given one
+	 * 
+	 * @param element {@link T} to be compared
+	 * @return {@link T} ceiling element, null if there is none
+	 */
+	public T ceiling(T element) {
+		return closest(element, false, true);
+	}
+
+	/**
+	 * Returns the lowest element strictly greater than the given one
+	 * 
+	 * @param element {@link T} to be compared
+	 * @return {@link T} higher element, null if there is none
+	 */
+	public T higher(T element) {
+		return closest(element, false, false);
+	}
+
+	/**
+	 * Returns the greatest element strictly lower than the given one
+	 * 
+	 * @param element {@link T} to be compared
+	 * @return {@link T} lower element, null if there is none
+	 */
+	public T lower(T element) {
+		return closest(element, true, false);
+	}
+
+	/**
+	 * Descends the tree once looking for the closest element to the given one on
+	 * one of its sides
+	 * 
+	 * @param element   {@link T} to be compared
+	 * @param below     true to look for lower elements, false for greater ones
+	 * @param inclusive true if the element itself is a valid result
+	 * @return {@link T} closest element, null if there is none
+	 */
+	private T closest(T element, boolean below, boolean inclusive) {
+		if (element == null)
+			throw new IllegalArgumentException("Element can not be null");
+
+		T closest = null;
+		AVLNode<T> node = root;
+		while (node != null) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0 && inclusive)
+				return node.getElement();
+
+			if (below ? comparison > 0 : comparison < 0) {
+				// Node on the searched side, closer ones can only be in its inner subtree
+				closest = node.getElement();
+				node = below ? node.getRight() : node.getLeft();
+			} else {
+				node = below ? node.getLeft() : node.getRight();
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * Returns an iterator over the elements in ascending order. It keeps a stack of
+	 * the nodes still to be returned, as deep as the tree
+	 * 
+	 * @return iterator of the elements
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new TreeIterator(true, null, null);
+	}
+
+	/**
+	 * Returns an iterator over the elements in descending order
+	 * 
+	 * @return iterator of the elements
+	 */
+	public Iterator<T> descendingIterator() {
+		return new TreeIterator(false, null, null);
+	}
+
+	/**
+	 * Returns the elements from lo, included, to hi, excluded, in ascending order.
+	 * Nothing is copied: every iteration descends the tree to lo and goes on from
+	 * there in order.
+	 * 
+	 * @param lo {@link T} lowest element of the range, included
+	 * @param hi {@link T} highest element of the range, excluded
+	 * @return iterable view of the range
+	 */
+	public Iterable<T> subSet(final T lo, final T hi) {
+		if (lo == null || hi == null)
+			throw new IllegalArgumentException("Range limits can not be null");
+		return () -> new TreeIterator(true, lo, hi);
+	}
+
+	/**
+	 * Returns a spliterator over the elements in ascending order. It is split by
+	 * positions, so both halves have the same size and get their first node
+	 * descending the tree with the sizes of the subtrees.
+	 * 
+	 * @return sized spliterator of the elements
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new TreeSpliterator(0, size());
+	}
+
+	/**
+	 * In order traversal with a stack of the nodes whose element has not been
+	 * returned yet. Every node in the stack is followed in order by its inner
+	 * subtree (right one ascending, left one descending). Iterating while the tree
+	 * is modified is not supported.
+	 */
+	private class TreeIterator implements Iterator<T> {
+
+		private final Deque<AVLNode<T>> stack = new ArrayDeque<AVLNode<T>>();
+		private final boolean ascending;
+		private final T lo; // included, null if there is no lower limit
+		private final T hi; // excluded, null if there is no upper limit
+
+		TreeIterator(boolean ascending, T lo, T hi) {
+			this.ascending = ascending;
+			this.lo = lo;
+			this.hi = hi;
+
+			// Path to the first element inside the limit the iteration starts from
+			AVLNode<T> node = root;
+			while (node != null) {
+				boolean inside = ascending ? lo == null || node.getElement().compareTo(lo) >= 0
+						: hi == null || node.getElement().compareTo(hi) < 0;
+				if (inside) {
+					stack.push(node);
+					node = ascending ? node.getLeft() : node.getRight();
+				} else {
+					node = ascending ? node.getRight() : node.getLeft();
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (stack.isEmpty())
+				return false;
+			T next = stack.peek().getElement();
+			return ascending ? hi == null || next.compareTo(hi) < 0 : lo == null || next.compareTo(lo) >= 0;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			AVLNode<T> node = stack.pop();
+			AVLNode<T> inner = ascending ? node.getRight() : node.getLeft();
+			while (inner != null) {
+				stack.push(inner);
+				inner = ascending ? inner.getLeft() : inner.getRight();
+			}
+			return node.getElement();
+		}
+	}
+
+	/**
+	 * Spliterator over the elements in the positions [from, to) of the tree in
+	 * order. The stack of the in order traversal is only built once the first
+	 * element is requested, splitting before that does not visit any node.
+	 */
+	private class TreeSpliterator implements Spliterator<T> {
+
+		private int from;
+		private final int to;
+		private Deque<AVLNode<T>> stack;
+
+		TreeSpliterator(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Builds the stack of the traversal from the element in position from
+		 */
+		private void start() {
+			stack = new ArrayDeque<AVLNode<T>>();
+			AVLNode<T> node = root;
+			int k = from;
+			while (node != null) {
+				int leftSize = AVLNode.sizeOf(node.getLeft());
+				if (k < leftSize) {
+					// The node comes after the element, it is returned later
+					stack.push(node);
+					node = node.getLeft();
+				} else if (k == leftSize) {
+					stack.push(node);
+					node = null;
+				} else {
+					k -= leftSize + 1;
+					node = node.getRight();
+				}
+			}
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (from >= to)
+				return false;
+			if (stack == null)
+				start();
+
+			AVLNode<T> node = stack.pop();
+			AVLNode<T> right = node.getRight();
+			while (right != null) {
+				stack.push(right);
+				right = right.getLeft();
+			}
+			from++;
+			action.accept(node.getElement());
+			return true;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			// Only split before the traversal starts, and not for single elements
+			if (stack != null || to - from < 2)
+				return null;
+			int middle = (from + to) >>> 1;
+			Spliterator<T> prefix = new TreeSpliterator(from, middle);
+			from = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - from;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL;
+		}
+
+		@Override
+		public Comparator<? super T> getComparator() {
+			return null; // Natural order of the elements
+		}
 	}
 
 	public void setRoot(AVLNode<T> root) {
@@ -472,29 +1181,33 @@ public class AVLTree<T extends Comparable<T>> {
 
 	@Override
 	public String toString() {
-		String aux = "";
-		aux += toString(root);
-		return aux;
+		return toString(root);
 	}
 
 	/**
 	 * Returns the representation of the subtree for a given root. PREORDER notation
-	 * is being used
+	 * is being used, with a stack of the subtrees still to be written instead of
+	 * recursion
 	 * 
 	 * @param theRoot
 	 * @return
 	 */
 	private String toString(AVLNode<T> theRoot) {
-		String aux = "";
-
-		if (theRoot == null) {
-			return "-";
+		StringBuilder aux = new StringBuilder();
+		// Empty subtrees are written as "-", so the stack holds null values
+		ArrayList<AVLNode<T>> stack = new ArrayList<AVLNode<T>>();
+		stack.add(theRoot);
+		while (!stack.isEmpty()) {
+			AVLNode<T> node = stack.remove(stack.size() - 1);
+			if (node == null) {
+				aux.append("-");
+			} else {
+				aux.append(node.toString());
+				stack.add(node.getRight());
+				stack.add(node.getLeft());
+			}
 		}
-		aux += theRoot.toString();
-		aux += toString(theRoot.getLeft());
-		aux += toString(theRoot.getRight());
-
-		return aux;
+		return aux.toString();
 	}
 
 	/** UTIL METHODS **/
@@ -506,10 +1219,16 @@ public class AVLTree<T extends Comparable<T>> {
 	 * @param arr
 	 */
 	void treeToArrayPreOrder(AVLNode<T> theRoot, ArrayList<AVLNode<T>> arr) {
-		if (theRoot != null) {
-			arr.add(theRoot);
-			treeToArrayPreOrder(theRoot.getLeft(), arr);
-			treeToArrayPreOrder(theRoot.getRight(), arr);	
+		Deque<AVLNode<T>> stack = new ArrayDeque<AVLNode<T>>();
+		if (theRoot != null)
+			stack.push(theRoot);
+		while (!stack.isEmpty()) {
+			AVLNode<T> node = stack.pop();
+			arr.add(node);
+			if (node.getRight() != null)
+				stack.push(node.getRight());
+			if (node.getLeft() != null)
+				stack.push(node.getLeft());
 		}
 	}
 
@@ -520,10 +1239,17 @@ public class AVLTree<T extends Comparable<T>> {
 	 * @param arr
 	 */
 	void treeToArrayInOrder(AVLNode<T> theRoot, ArrayList<AVLNode<T>> arr) {
-		if (theRoot != null) {
-			treeToArrayInOrder(theRoot.getLeft(), arr);
-			arr.add(theRoot);
-			treeToArrayInOrder(theRoot.getRight(), arr);	
+		// Stack of the nodes whose left subtree is being visited
+		Deque<AVLNode<T>> stack = new ArrayDeque<AVLNode<T>>();
+		AVLNode<T> node = theRoot;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.getLeft();
+			}
+			node = stack.pop();
+			arr.add(node);
+			node = node.getRight();
 		}
 	}
 }
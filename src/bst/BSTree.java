@@ -1,6 +1,10 @@
 package bst;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 
 public class BSTree<T extends Comparable<T>> {
 
@@ -15,44 +19,50 @@ public class BSTree<T extends Comparable<T>> {
 	 * @param element
 	 */
 	public void add(T element) {
-		if (element == null)
-			throw new IllegalArgumentException("Element can not be null");
-		if (search(element))
+		if (!addIfAbsent(element))
 			throw new IllegalArgumentException("Given element already exist in the tree");
-
-		root = add(element, root);
 	}
 
 	/**
-	 * Recursive call to add an element to the BSTree
+	 * Adds the element if it is not already in the tree. The tree is descended
+	 * once, comparing the element once per level, and the path is kept in a stack
+	 * to go up it without recursion
 	 * 
 	 * @param element {@link T} to be added
-	 * @param theRoot {@link BSTNode} current subtree root
-	 * @return
+	 * @return true if the element was added. False if it was already contained
 	 */
-	private BSTNode<T> add(T element, BSTNode<T> theRoot) {
-		if (theRoot == null) {
-			return new BSTNode<T>(element);
-		}
-
-		if (element.compareTo(theRoot.getElement()) == 0) {
-			throw new RuntimeException("Given element already present in the tree");
-		}
-
-		else if (element.compareTo(theRoot.getElement()) < 0) {
-			theRoot.setLeft(add(element, theRoot.getLeft()));
+	public boolean addIfAbsent(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Element can not be null");
+		if (root == null) {
+			root = new BSTNode<T>(element);
+			return true;
 		}
 
-		else if (element.compareTo(theRoot.getElement()) > 0) {
-			theRoot.setRight(add(element, theRoot.getRight()));
+		Deque<BSTNode<T>> path = new ArrayDeque<BSTNode<T>>();
+		BSTNode<T> node = root;
+		while (true) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0)
+				return false;
+
+			path.push(node);
+			if (comparison < 0) {
+				if (node.getLeft() == null) {
+					node.setLeft(new BSTNode<T>(element));
+					break;
+				}
+				node = node.getLeft();
+			} else {
+				if (node.getRight() == null) {
+					node.setRight(new BSTNode<T>(element));
+					break;
+				}
+				node = node.getRight();
+			}
 		}
-
-		/*
-		 * Acts as a recursive call peforming updateHeight on every single node as add
-		 * is a recursive method
-		 */
-		theRoot.updateHeight();
-		return theRoot;
+		updateHeights(path);
+		return true;
 	}
 
 	/**
@@ -64,158 +74,149 @@ public class BSTree<T extends Comparable<T>> {
 	public boolean search(T element) {
 		if (element == null)
 			throw new IllegalArgumentException("Element can not be null");
-		return search(root, element);
-	}
 
-	/**
-	 * Recursive call to search for an element in the BSTree
-	 * 
-	 * @param theRoot {@link BSTNode} current subtree root
-	 * @param element {@link T} to be searched
-	 * @return
-	 */
-	private boolean search(BSTNode<T> theRoot, T element) {
-		if (theRoot == null) {
-			return false;
-		}
-
-		if (element.compareTo(theRoot.getElement()) == 0) {
-			return true;
-		}
-
-		else if (element.compareTo(theRoot.getElement()) < 0) {
-			return search(theRoot.getLeft(), element);
-		}
-
-		else {
-			return search(theRoot.getRight(), element);
+		BSTNode<T> node = root;
+		while (node != null) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0)
+				return true;
+			node = comparison < 0 ? node.getLeft() : node.getRight();
 		}
+		return false;
 	}
 
 	/**
 	 * Given a element, it removes it from the BSTree
 	 * 
 	 * @param element {@link T} to be removed
-	 * @return {@link BSTNode} node removed
 	 */
 	public void remove(T element) {
-		if (element == null)
-			throw new IllegalArgumentException("Element to be removed can not be null");
-		if (!search(element))
+		if (!removeIfPresent(element))
 			throw new IllegalArgumentException("Given element does not exist in the tree");
-		root = remove(root, element);
 	}
 
 	/**
-	 * Recursive call to remove an element in the BSTree
+	 * Removes the element if it is in the tree. The tree is descended once,
+	 * comparing the element once per level, and the path is kept in a stack to go
+	 * up it without recursion
 	 * 
-	 * Once reached element found stage, return statement means what node with
-	 * element to be removed [current theRoot] will be replaced by (null || other
-	 * node)
+	 * A node with two children takes the max element of its left subtree, and the
+	 * node that held it is removed instead. It is the rightmost one of the
+	 * subtree, so no element is compared to find it.
 	 * 
-	 * @param theRoot {@link BSTNode} current subtree root
 	 * @param element {@link T} to be removed
-	 * @return {@link BSTNode} node removed
+	 * @return true if the element was removed. False if it was not contained
 	 */
-	private BSTNode<T> remove(BSTNode<T> theRoot, T element) {
-		if (theRoot == null)
-			throw new IllegalArgumentException("Node to be removed not present in the tree");
+	public boolean removeIfPresent(T element) {
 		if (element == null)
 			throw new IllegalArgumentException("Element to be removed can not be null");
-		/*
-		 * Recursive calls iterating throught the BSTree until node with given element
-		 * is found
-		 */
-		if (element.compareTo(theRoot.getElement()) < 0) {
-			theRoot.setLeft(remove(theRoot.getLeft(), element));
-		} else if (element.compareTo(theRoot.getElement()) > 0) {
-			theRoot.setRight(remove(theRoot.getRight(), element));
+
+		Deque<BSTNode<T>> path = new ArrayDeque<BSTNode<T>>();
+		BSTNode<T> node = root;
+		while (node != null) {
+			int comparison = element.compareTo(node.getElement());
+			if (comparison == 0)
+				break;
+			path.push(node);
+			node = comparison < 0 ? node.getLeft() : node.getRight();
 		}
-		/* Element to be removed found */
-		else {
-			/* Root has no children nodes */
-			if (theRoot.getRight() == null && theRoot.getLeft() == null) {
-				return null;
-			}
-			/* Root has only left child node */
-			else if (theRoot.getRight() == null) {
-				return theRoot.getLeft(); // Replace theRoot by only left children
-			}
-			/* Root has only right child node */
-			else if (theRoot.getLeft() == null) {
-				return theRoot.getRight(); // Replace theRoot by only right children
-			}
-			/* Root has two child nodes */
-			else {
-				// Assign to root max element node of left subtree
-				theRoot.setElement(getMax(theRoot.getLeft()));
-				// Later remove node with element we just assigned to root
-				theRoot.setLeft(remove(theRoot.getLeft(), theRoot.getElement()));
+		if (node == null)
+			return false;
+
+		/* Node has two child nodes */
+		if (node.getLeft() != null && node.getRight() != null) {
+			path.push(node);
+			BSTNode<T> max = node.getLeft();
+			while (max.getRight() != null) {
+				path.push(max);
+				max = max.getRight();
 			}
+			node.setElement(max.getElement());
+			replace(path.peek(), max, max.getLeft());
 		}
+		/* Node replaced by its only child, or removed if it is a leaf */
+		else {
+			replace(path.peek(), node, node.getLeft() != null ? node.getLeft() : node.getRight());
+		}
+		updateHeights(path);
+		return true;
+	}
 
-		/*
-		 * Acts as a recursive call performing updateHeight on every single node as
-		 * remove is a recursive method
-		 */
-		theRoot.updateHeight();
-		return theRoot;
+	/**
+	 * Links a new subtree in place of a node
+	 * 
+	 * @param parent  {@link BSTNode} of the node, null if the node is the root
+	 * @param node    {@link BSTNode} to be replaced
+	 * @param subtree {@link BSTNode} linked in its place, may be null
+	 */
+	private void replace(BSTNode<T> parent, BSTNode<T> node, BSTNode<T> subtree) {
+		if (parent == null)
+			root = subtree;
+		else if (parent.getLeft() == node)
+			parent.setLeft(subtree);
+		else
+			parent.setRight(subtree);
 	}
 
 	/**
-	 * Iterative version to find node with greatest element for a given subtree root
-	 * node
+	 * Goes up the path of an add or a remove, from the deepest node to the root,
+	 * updating the height of every node
 	 * 
-	 * @param theRoot {@link BSTNode} current subtree root
-	 * @return {@link T} maximum element from subtree
+	 * @param path stack of the nodes from the root to the modified one
 	 */
-	private T getMax(BSTNode<T> theRoot) {
-		while (theRoot.getRight() != null) {
-			theRoot = theRoot.getRight();
+	private void updateHeights(Deque<BSTNode<T>> path) {
+		while (!path.isEmpty()) {
+			path.pop().updateHeight();
 		}
-		return theRoot.getElement();
 	}
 
 	/**
-	 * Recursive version to find node with greatest element for a given subtree root
-	 * node
+	 * Builds a balanced tree with sorted elements in O(n), without rotations. The
+	 * middle element of every range is the root of the subtree of that range.
 	 * 
-	 * @param theRoot {@link BSTNode} current subtree root
-	 * @return {@link T} maximum element from subtree
+	 * @param sorted array of elements in ascending order, without duplicates
+	 * @return new tree with the elements
 	 */
-	private T getMaxRec(BSTNode<T> theRoot) {
-		if (theRoot.getRight() != null) {
-			return getMaxRec(theRoot.getRight());
-		} else {
-			return theRoot.getElement();
+	public static <T extends Comparable<T>> BSTree<T> fromSorted(T[] sorted) {
+		for (int i = 0; i < sorted.length; i++) {
+			if (sorted[i] == null)
+				throw new IllegalArgumentException("Element can not be null");
+			if (i > 0 && sorted[i - 1].compareTo(sorted[i]) >= 0)
+				throw new IllegalArgumentException("Elements must be sorted without duplicates");
 		}
+
+		BSTree<T> tree = new BSTree<T>();
+		tree.root = fromSorted(Arrays.asList(sorted), 0, sorted.length - 1);
+		return tree;
 	}
 
 	/**
-	 * RECURSIVE method to obtain the height of a tree without using nodes height
-	 * attribute
+	 * Recursive call building the subtree of a range of sorted elements. It only
+	 * goes as deep as the balanced tree
 	 * 
-	 * @return
+	 * @param sorted list of elements
+	 * @param first  position of the range
+	 * @param last   position of the range, included
+	 * @return {@link BSTNode} root of the subtree, null for an empty range
 	 */
-	public int getHeight() {
-		return getHeightRec(root);
+	private static <T extends Comparable<T>> BSTNode<T> fromSorted(List<T> sorted, int first, int last) {
+		if (first > last)
+			return null;
+
+		int middle = (first + last) >>> 1;
+		BSTNode<T> node = new BSTNode<T>(sorted.get(middle), fromSorted(sorted, first, middle - 1),
+				fromSorted(sorted, middle + 1, last));
+		node.updateHeight();
+		return node;
 	}
 
 	/**
-	 * Recursive call of method to obtain the height of the sub-tree whose root is
-	 * theRoot
+	 * Returns the number of levels of the tree, from the height kept in its root
 	 * 
-	 * @param theRoot
-	 * @return
+	 * @return 0 for an empty tree, root height + 1 otherwise
 	 */
-	private int getHeightRec(BSTNode<T> theRoot) {
-		if (theRoot == null) {
-			return 0;
-		}
-		int left = getHeightRec(theRoot.getLeft()) + 1;
-		int right = getHeightRec(theRoot.getRight()) + 1;
-
-		return left > right ? left : right;
+	public int getHeight() {
+		return root == null ? 0 : root.getHeight() + 1;
 	}
 
 	/**
@@ -226,14 +227,54 @@ public class BSTree<T extends Comparable<T>> {
 	 * @return joined result tree
 	 */
 	public BSTree<T> joins(BSTree<T> tree) {
+		return joins(tree, false);
+	}
+
+	/**
+	 * Given another binary search tree, will join it into the current binary search
+	 * tree. The given tree is not modified.
+	 * 
+	 * Balanced mode traverses both trees in order, merges them like sorted lists
+	 * and rebuilds the current tree balanced from the result. It costs O(n + m)
+	 * however unbalanced the trees are, instead of adding the nodes one by one in
+	 * O(m * height).
+	 * 
+	 * @param tree     to be joined into current tree
+	 * @param balanced true to rebuild the joined tree balanced
+	 * @return joined result tree
+	 */
+	public BSTree<T> joins(BSTree<T> tree, boolean balanced) {
+		if (!balanced) {
+			ArrayList<BSTNode<T>> nodes = new ArrayList<>();
+			// Obtain all tree nodes into array list
+			treeToArrayPreOrder(tree.root, nodes);
+			for (BSTNode<T> node : nodes) {
+				addIfAbsent(node.getElement());
+			}
+			return this;
+		}
+
 		ArrayList<BSTNode<T>> nodes = new ArrayList<>();
-		// Obtain all tree nodes into array list
-		treeToArrayPreOrder(tree.root, nodes);
-		for(BSTNode<T> node : nodes) {
-			if(!search(node.getElement())) {
-				add(node.getElement());
+		ArrayList<BSTNode<T>> others = new ArrayList<>();
+		treeToArrayInOrder(root, nodes);
+		treeToArrayInOrder(tree.root, others);
+
+		List<T> merged = new ArrayList<T>(nodes.size() + others.size());
+		int i = 0;
+		int j = 0;
+		while (i < nodes.size() || j < others.size()) {
+			if (j == others.size()) {
+				merged.add(nodes.get(i++).getElement());
+			} else if (i == nodes.size()) {
+				merged.add(others.get(j++).getElement());
+			} else {
+				int comparison = nodes.get(i).getElement().compareTo(others.get(j).getElement());
+				if (comparison == 0) // Element contained in both trees
+					j++;
+				merged.add(comparison <= 0 ? nodes.get(i++).getElement() : others.get(j++).getElement());
 			}
 		}
+		root = fromSorted(merged, 0, merged.size() - 1);
 		return this;
 	}
 
@@ -247,32 +288,33 @@ public class BSTree<T extends Comparable<T>> {
 
 	@Override
 	public String toString() {
-		String aux = "";
-		aux += toString(root);
-		return aux;
+		return toString(root);
 	}
 
 	/**
-	 * Returns the representation of the BSTree in a String with the Pre-Order
-	 * notation
+	 * Returns the representation of the subtree for a given root. PREORDER notation
+	 * is being used, with a stack of the subtrees still to be written instead of
+	 * recursion
 	 * 
 	 * @param theRoot
 	 * @return
 	 */
 	private String toString(BSTNode<T> theRoot) {
-		String aux = "";
-
-		if (theRoot == null) {
-			return "-";
+		StringBuilder aux = new StringBuilder();
+		// Empty subtrees are written as "-", so the stack holds null values
+		ArrayList<BSTNode<T>> stack = new ArrayList<BSTNode<T>>();
+		stack.add(theRoot);
+		while (!stack.isEmpty()) {
+			BSTNode<T> node = stack.remove(stack.size() - 1);
+			if (node == null) {
+				aux.append("-");
+			} else {
+				aux.append(node.toString());
+				stack.add(node.getRight());
+				stack.add(node.getLeft());
+			}
 		}
-
-		aux += theRoot.toString();
-
-		aux += toString(theRoot.getLeft());
-
-		aux += toString(theRoot.getRight());
-
-		return aux;
+		return aux.toString();
 	}
 
 	/** UTIL METHODS **/
@@ -284,10 +326,16 @@ public class BSTree<T extends Comparable<T>> {
 	 * @param arr
 	 */
 	void treeToArrayPreOrder(BSTNode<T> theRoot, ArrayList<BSTNode<T>> arr) {
-		if (theRoot != null) {
-			arr.add(theRoot);
-			treeToArrayPreOrder(theRoot.getLeft(), arr);
-			treeToArrayPreOrder(theRoot.getRight(), arr);
+		Deque<BSTNode<T>> stack = new ArrayDeque<BSTNode<T>>();
+		if (theRoot != null)
+			stack.push(theRoot);
+		while (!stack.isEmpty()) {
+			BSTNode<T> node = stack.pop();
+			arr.add(node);
+			if (node.getRight() != null)
+				stack.push(node.getRight());
+			if (node.getLeft() != null)
+				stack.push(node.getLeft());
 		}
 	}
 
@@ -298,10 +346,17 @@ public class BSTree<T extends Comparable<T>> {
 	 * @param arr
 	 */
 	void treeToArrayInOrder(BSTNode<T> theRoot, ArrayList<BSTNode<T>> arr) {
-		if (theRoot != null) {
-			treeToArrayInOrder(theRoot.getLeft(), arr);
-			arr.add(theRoot);
-			treeToArrayInOrder(theRoot.getRight(), arr);
+		// Stack of the nodes whose left subtree is being visited
+		Deque<BSTNode<T>> stack = new ArrayDeque<BSTNode<T>>();
+		BSTNode<T> node = theRoot;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.getLeft();
+			}
+			node = stack.pop();
+			arr.add(node);
+			node = node.getRight();
 		}
 	}
 }
@@ -0,0 +1,223 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sparse storage for the edges of a {@link Graph}. Every node keeps its
+ * out-edges in two parallel arrays (destination index and weight) sorted by
+ * destination, so memory grows with nodes plus edges instead of capacity x
+ * capacity, and neighbours are visited in the same ascending order as a row of
+ * the adjacency matrix.
+ *
+ * @author UO271506
+ */
+class AdjacencyList {
+
+	private static final int INITIAL_DEGREE = 2;
+
+	/**
+	 * Out-edges of a single node, kept sorted by destination index
+	 */
+	private static class Row {
+		private int[] destinations = new int[INITIAL_DEGREE];
+		private double[] weights = new double[INITIAL_DEGREE];
+		private int outDegree;
+		private int inDegree;
+
+		/**
+		 * Binary search of a destination among the out-edges of the row
+		 *
+		 * @param destination int index of the destination node
+		 * @return position of the destination if present. Otherwise (-(insertion
+		 *         point) - 1)
+		 */
+		private int indexOf(int destination) {
+			return Arrays.binarySearch(destinations, 0, outDegree, destination);
+		}
+
+		private void insert(int position, int destination, double weight) {
+			if (outDegree == destinations.length) {
+				destinations = Arrays.copyOf(destinations, outDegree * 2);
+				weights = Arrays.copyOf(weights, outDegree * 2);
+			}
+			System.arraycopy(destinations, position, destinations, position + 1, outDegree - position);
+			System.arraycopy(weights, position, weights, position + 1, outDegree - position);
+			destinations[position] = destination;
+			weights[position] = weight;
+			outDegree++;
+		}
+
+		private void delete(int position) {
+			System.arraycopy(destinations, position + 1, destinations, position, outDegree - position - 1);
+			System.arraycopy(weights, position + 1, weights, position, outDegree - position - 1);
+			outDegree--;
+		}
+	}
+
+	private List<Row> rows;
+
+	/**
+	 * Constructor to initialize the storage for a expected number of nodes
+	 *
+	 * @param capacity expected number of nodes
+	 */
+	AdjacencyList(int capacity) {
+		rows = new ArrayList<Row>(capacity);
+	}
+
+	/**
+	 * Returns the number of nodes stored
+	 *
+	 * @return integer number of nodes
+	 */
+	int size() {
+		return rows.size();
+	}
+
+	/**
+	 * Adds a new node without edges at the end of the storage
+	 */
+	void addNode() {
+		rows.add(new Row());
+	}
+
+	/**
+	 * Removes the node at the given index following the same convention as the
+	 * adjacency matrix: every edge touching the node is dropped and the last node
+	 * is moved to its position.
+	 *
+	 * @param index int index of the node to be removed
+	 */
+	void removeNode(int index) {
+		int last = rows.size() - 1;
+		// Drop every edge leaving or reaching the removed node
+		Row removed = rows.get(index);
+		while (removed.outDegree > 0) {
+			removeEdge(index, removed.destinations[removed.outDegree - 1]);
+		}
+		for (int i = 0; i <= last && removed.inDegree > 0; i++) {
+			if (existsEdge(i, index))
+				removeEdge(i, index);
+		}
+
+		if (index != last) {
+			// Edges reaching the last node now have to point to its new index
+			Row moved = rows.get(last);
+			for (int i = 0; i <= last; i++) {
+				Row row = rows.get(i);
+				int position = row.indexOf(last);
+				if (position >= 0) {
+					double weight = row.weights[position];
+					row.delete(position);
+					row.insert(-row.indexOf(index) - 1, index, weight);
+				}
+			}
+			rows.set(index, moved);
+		}
+		rows.remove(last);
+	}
+
+	/**
+	 * Indicates if an edge exists between two nodes
+	 *
+	 * @param origin      int index of the origin node
+	 * @param destination int index of the destination node
+	 * @return true if the edge exists. False otherwise
+	 */
+	boolean existsEdge(int origin, int destination) {
+		return rows.get(origin).indexOf(destination) >= 0;
+	}
+
+	/**
+	 * Returns the weight of an edge, or 0.0 if it does not exist (same value the
+	 * weight matrix holds)
+	 *
+	 * @param origin      int index of the origin node
+	 * @param destination int index of the destination node
+	 * @return double weight of the edge
+	 */
+	double getWeight(int origin, int destination) {
+		Row row = rows.get(origin);
+		int position = row.indexOf(destination);
+		return position >= 0 ? row.weights[position] : 0.0;
+	}
+
+	/**
+	 * Adds an edge between two nodes or updates its weight if already existing
+	 *
+	 * @param origin      int index of the origin node
+	 * @param destination int index of the destination node
+	 * @param weight      double weight of the edge
+	 */
+	void setEdge(int origin, int destination, double weight) {
+		Row row = rows.get(origin);
+		int position = row.indexOf(destination);
+		if (position >= 0) {
+			row.weights[position] = weight;
+		} else {
+			row.insert(-position - 1, destination, weight);
+			rows.get(destination).inDegree++;
+		}
+	}
+
+	/**
+	 * Removes the edge between two nodes if it exists
+	 *
+	 * @param origin      int index of the origin node
+	 * @param destination int index of the destination node
+	 */
+	void removeEdge(int origin, int destination) {
+		Row row = rows.get(origin);
+		int position = row.indexOf(destination);
+		if (position >= 0) {
+			row.delete(position);
+			rows.get(destination).inDegree--;
+		}
+	}
+
+	/**
+	 * Returns the destination of an out-edge of the origin node given its position
+	 * among them, in ascending order of destination
+	 *
+	 * @param origin   int index of the origin node
+	 * @param position int in [0, outDegree)
+	 * @return index of the destination node
+	 */
+	int getDestination(int origin, int position) {
+		return rows.get(origin).destinations[position];
+	}
+
+	/**
+	 * Returns the weight of an out-edge of the origin node given its position
+	 * among them
+	 *
+	 * @param origin   int index of the origin node
+	 * @param position int in [0, outDegree)
+	 * @return double weight of the edge
+	 */
+	double getWeightAt(int origin, int position) {
+		return rows.get(origin).weights[position];
+	}
+
+	/**
+	 * Returns the number of edges leaving a node
+	 *
+	 * @param index int index of the node
+	 * @return number of out-edges
+	 */
+	int getOutDegree(int index) {
+		return rows.get(index).outDegree;
+	}
+
+	/**
+	 * Returns the number of edges reaching a node
+	 *
+	 * @param index int index of the node
+	 * @return number of in-edges
+	 */
+	int getInDegree(int index) {
+		return rows.get(index).inDegree;
+	}
+}
@@ -1,6 +1,7 @@
 package graphs;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 public class BidirectionalGraph<T> {
@@ -9,6 +10,8 @@ public class BidirectionalGraph<T> {
 	public static final double INFINITE = Double.POSITIVE_INFINITY;
 	// Graph elements
 	ArrayList<GraphNode<T>> nodes;
+	// Index of every element in the nodes list, kept updated by addNode and removeNode
+	private HashMap<T, Integer> nodeIndexes;
 	protected boolean[][] edges;
 	protected double[][] weight;
 
@@ -25,6 +28,7 @@ public class BidirectionalGraph<T> {
 			throw new IllegalArgumentException("Capacity must be equal/greater zero");
 		}
 		nodes = new ArrayList<GraphNode<T>>(capacity);
+		nodeIndexes = new HashMap<T, Integer>();
 		edges = new boolean[capacity][capacity];
 		weight = new double[capacity][capacity];
 		// Floyd structures initialization
@@ -41,13 +45,8 @@ public class BidirectionalGraph<T> {
 	 *         >=0
 	 */
 	public int getNode(T element) {
-		int elementIndex = INDEX_NOT_FOUND; // By default, element not found
-		for (int i = 0; i < nodes.size(); i++) {
-			if (nodes.get(i).getElement().equals(element)) {
-				elementIndex = i;
-			}
-		}
-		return elementIndex;
+		Integer elementIndex = nodeIndexes.get(element);
+		return elementIndex == null ? INDEX_NOT_FOUND : elementIndex;
 	}
 
 	/**
@@ -62,6 +61,7 @@ public class BidirectionalGraph<T> {
 		if (getNode(element) != INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Element already existing in the graph");
 		nodes.add(new GraphNode<T>(element));
+		nodeIndexes.put(element, nodes.size() - 1);
 		for (int i = 0; i <= getSize() - 1; i++) {
 			edges[nodes.size() - 1][i] = false;
 			edges[i][nodes.size() - 1] = false;
@@ -134,7 +134,7 @@ public class BidirectionalGraph<T> {
 			throw new IllegalArgumentException("Element asked to remove does not exist");
 
 		if (i != getSize() - 1) { // Not the last node
-			nodes.set(i, nodes.get(getSize() - 1)); // Element to be removed will be replaced by the last node
+			moveLastNode(i); // Element to be removed will be replaced by the last node
 
 			// replace elements in edges and weights
 			for (int j = 0; j < getSize() - 1; j++) {
@@ -146,8 +146,21 @@ public class BidirectionalGraph<T> {
 			edges[i][i] = edges[getSize() - 1][getSize() - 1];
 			weight[i][i] = weight[getSize() - 1][getSize() - 1];
 		}
-		
-		nodes.remove(getSize()-1);
+
+		nodeIndexes.remove(element);
+		nodes.remove(getSize() - 1);
+	}
+
+	/**
+	 * Places the last node of the list at the given index, updating its position
+	 * in the index of elements
+	 * 
+	 * @param index int position the last node is moved to
+	 */
+	private void moveLastNode(int index) {
+		GraphNode<T> last = nodes.get(getSize() - 1);
+		nodes.set(index, last);
+		nodeIndexes.put(last.getElement(), index);
 	}
 
 	/**
@@ -0,0 +1,87 @@
+package graphs;
+
+/**
+ * Disjoint set (union-find) over the integers [0, size). Sets are joined by rank
+ * and paths are compressed on every find, so any sequence of operations runs in
+ * almost constant amortized time per operation.
+ *
+ * @author UO271506
+ */
+public class DisjointSet {
+
+	private int[] parent;
+	private int[] rank;
+	private int numberOfSets;
+
+	/**
+	 * Constructor creating a set for every element in [0, size)
+	 *
+	 * @param size number of elements
+	 */
+	public DisjointSet(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException("Size must be equal/greater zero");
+		parent = new int[size];
+		rank = new int[size];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i;
+		}
+		numberOfSets = size;
+	}
+
+	/**
+	 * Returns the representative of the set containing the element. Every element
+	 * in the path to the representative is linked directly to it.
+	 *
+	 * @param element int in [0, size)
+	 * @return int representative of its set
+	 */
+	public int find(int element) {
+		int root = element;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		// Path compression
+		while (parent[element] != root) {
+			int next = parent[element];
+			parent[element] = root;
+			element = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Joins the sets of two elements, hanging the tree with lower rank from the
+	 * other one
+	 *
+	 * @param a int element of the first set
+	 * @param b int element of the second set
+	 * @return true if both elements were in different sets. False otherwise
+	 */
+	public boolean union(int a, int b) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if (rootA == rootB)
+			return false;
+
+		if (rank[rootA] < rank[rootB]) {
+			parent[rootA] = rootB;
+		} else if (rank[rootA] > rank[rootB]) {
+			parent[rootB] = rootA;
+		} else {
+			parent[rootB] = rootA;
+			rank[rootA]++;
+		}
+		numberOfSets--;
+		return true;
+	}
+
+	/**
+	 * Returns the current number of disjoint sets
+	 *
+	 * @return int number of sets
+	 */
+	public int getNumberOfSets() {
+		return numberOfSets;
+	}
+}
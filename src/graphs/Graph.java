@@ -1,13 +1,16 @@
 package graphs;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Queue;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
-import javax.swing.plaf.basic.BasicInternalFrameTitlePane.MaximizeAction;
+import priorityQueue.binaryHeap.BinaryHeap;
 
 /**
  * Graph class for performing different algorithms
@@ -22,10 +25,23 @@ public class Graph<T> {
 	public static final double INFINITE = Double.POSITIVE_INFINITY;
 	public static final double INFINITE_NEGATIVE = Double.NEGATIVE_INFINITY;
 
+	/* STORAGE TYPES for the edges of the graph */
+	public static final int ADJACENCY_MATRIX = 0;
+	public static final int ADJACENCY_LIST = 1;
+
 	ArrayList<GraphNode<T>> nodes;
+	// Index of every element in the nodes list, kept updated by addNode and removeNode
+	private HashMap<T, Integer> nodeIndexes;
 	protected boolean[][] edges;
 	protected double[][] weight;
+	// Sparse storage replacing edges and weight matrix when ADJACENCY_LIST is used
+	protected AdjacencyList adjacency;
 	private int maximumCapacity;
+
+	// Incremented on every modification of the nodes or edges of the graph, so
+	// results computed for a previous version are known to be outdated
+	private long version;
+	private static final long NOT_COMPUTED = -1;
 	/*-------------- GRAPH --------------*/
 
 	/**
@@ -35,11 +51,33 @@ public class Graph<T> {
 	 * @param maximum capacity of the graph
 	 */
 	public Graph(int capacity) {
+		this(capacity, ADJACENCY_MATRIX);
+	}
+
+	/**
+	 * Constructor to initialize the Graph with a given storage type for its edges.
+	 * ADJACENCY_MATRIX stores memory for capacity x capacity edges, weight and
+	 * floyd matrices. ADJACENCY_LIST only stores the existing edges of every node,
+	 * so memory grows with the number of nodes plus edges and floyd matrices are
+	 * only created when floyd is performed.
+	 * 
+	 * @param capacity    maximum capacity of the graph
+	 * @param storageType ADJACENCY_MATRIX or ADJACENCY_LIST
+	 */
+	public Graph(int capacity, int storageType) {
 		if (capacity < 0) {
 			throw new IllegalArgumentException("Capacity must be equal/greater zero");
 		}
+		if (storageType != ADJACENCY_MATRIX && storageType != ADJACENCY_LIST) {
+			throw new IllegalArgumentException("Storage type not supported");
+		}
 		this.maximumCapacity = capacity;
 		nodes = new ArrayList<GraphNode<T>>(capacity);
+		nodeIndexes = new HashMap<T, Integer>();
+		if (storageType == ADJACENCY_LIST) {
+			adjacency = new AdjacencyList(capacity);
+			return;
+		}
 		edges = new boolean[capacity][capacity];
 		weight = new double[capacity][capacity];
 		// Floyd structures initialization
@@ -56,13 +94,8 @@ public class Graph<T> {
 	 *         >=0
 	 */
 	public int getNode(T element) {
-		int elementIndex = INDEX_NOT_FOUND; // By default, element not found
-		for (int i = 0; i < nodes.size(); i++) {
-			if (nodes.get(i).getElement().equals(element)) {
-				elementIndex = i;
-			}
-		}
-		return elementIndex;
+		Integer elementIndex = nodeIndexes.get(element);
+		return elementIndex == null ? INDEX_NOT_FOUND : elementIndex;
 	}
 
 	/**
@@ -74,11 +107,17 @@ public class Graph<T> {
 	 *                   capacity of nodes into the graph is reached
 	 */
 	public void addNode(T element) throws Exception {
-		if(this.maximumCapacity >= getSize()) 
+		if (getSize() >= this.maximumCapacity)
 			throw new ArrayIndexOutOfBoundsException("Maximum graph size reached");
 		if (getNode(element) != INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Element already existing in the graph");
 		nodes.add(new GraphNode<T>(element));
+		nodeIndexes.put(element, nodes.size() - 1);
+		version++;
+		if (adjacency != null) {
+			adjacency.addNode();
+			return;
+		}
 		for (int i = 0; i <= getSize() - 1; i++) {
 			edges[nodes.size() - 1][i] = false;
 			edges[i][nodes.size() - 1] = false;
@@ -113,7 +152,7 @@ public class Graph<T> {
 		if (j == INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Destination node does not exist");
 
-		return edges[i][j];
+		return hasEdge(i, j);
 	}
 
 	/**
@@ -134,8 +173,8 @@ public class Graph<T> {
 		if (j == INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Destination node does not exist");
 
-		this.edges[i][j] = true;
-		this.weight[i][j] = weight;
+		setEdge(i, j, weight);
+		version++;
 	}
 
 	/**
@@ -148,8 +187,18 @@ public class Graph<T> {
 		if (i == INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Element asked to remove does not exist");
 
+		version++;
+		if (adjacency != null) {
+			adjacency.removeNode(i);
+			if (i != getSize() - 1)
+				moveLastNode(i);
+			nodeIndexes.remove(element);
+			nodes.remove(getSize() - 1);
+			return;
+		}
+
 		if (i != getSize() - 1) { // Not the last node
-			nodes.set(i, nodes.get(getSize() - 1)); // Element to be removed will be replaced by the last node
+			moveLastNode(i); // Element to be removed will be replaced by the last node
 
 			// replace elements in edges and weights
 			for (int j = 0; j < getSize() - 1; j++) {
@@ -162,9 +211,22 @@ public class Graph<T> {
 			weight[i][i] = weight[getSize() - 1][getSize() - 1];
 		}
 
+		nodeIndexes.remove(element);
 		nodes.remove(getSize() - 1);
 	}
 
+	/**
+	 * Places the last node of the list at the given index, updating its position
+	 * in the index of elements
+	 * 
+	 * @param index int position the last node is moved to
+	 */
+	private void moveLastNode(int index) {
+		GraphNode<T> last = nodes.get(getSize() - 1);
+		nodes.set(index, last);
+		nodeIndexes.put(last.getElement(), index);
+	}
+
 	/**
 	 * Prints out the current state of the graph. Showing the nodes with its
 	 * information, and the edges and weight matrix.
@@ -176,8 +238,8 @@ public class Graph<T> {
 
 		for (int i = 0; i <= getSize() - 1; i++) {
 			for (int j = 0; j <= getSize() - 1; j++) {
-				System.out.print(edges[i][j] + "(");
-				System.out.print(weight[i][j] + ") ");
+				System.out.print(hasEdge(i, j) + "(");
+				System.out.print(getEdgeWeight(i, j) + ") ");
 			}
 			System.out.println();
 		}
@@ -200,8 +262,8 @@ public class Graph<T> {
 		if (!existsEdge(origin, destination))
 			throw new IllegalArgumentException("No existing edge between these nodes");
 
-		edges[i][j] = false;
-		weight[i][j] = 0.0;
+		unsetEdge(i, j);
+		version++;
 	}
 
 	/**
@@ -244,6 +306,9 @@ public class Graph<T> {
 		if (i == INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Node does not exist");
 
+		if (adjacency != null)
+			return adjacency.getOutDegree(i) == 0 && adjacency.getInDegree(i) > 0;
+
 		boolean isDrain = false;
 		for (int j = 0; j <= getSize() - 1; j++) {
 			if (edges[i][j]) // If node reaches another nodes is not a drain one
@@ -266,6 +331,9 @@ public class Graph<T> {
 		if (i == INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Node does not exist");
 
+		if (adjacency != null)
+			return adjacency.getInDegree(i) == 0 && adjacency.getOutDegree(i) > 0;
+
 		boolean isSource = false;
 		for (int j = 0; j <= getSize() - 1; j++) {
 			if (edges[i][j])
@@ -285,71 +353,63 @@ public class Graph<T> {
 	 * @return boolean true if graph is strongly connected. False otherwise
 	 */
 	public boolean isStronglyConnected() {
-		boolean stronglyConnected = true;
-
-		/* Floyd usage */
-		floyd();
-		for (int i = 0; i < getSize(); i++) {
-			for (int j = 0; j < getSize(); j++) {
-				if (A[i][j] == INFINITE)
-					return false;
-			}
-		}
-
-		/* Dijkstra usage */
-//		for(int currentNode = 0; currentNode < getSize(); currentNode++) {
-//			double[] PD  = dijkstra(nodes.get(currentNode).getElement());
-//			for(int i = 0; i < PD.length; i++) {
-//				if(i != currentNode && PD[i] == INFINITE) {
-//					return false;
-//				}
-//			}
-//		}
-
-		return stronglyConnected;
+		computeComponentsIfOutdated();
+		return componentCount <= 1;
 	}
 
 	/**
-	 * Determines if current graph is semi connected, meaning that a path from a
-	 * node to any other node in the graph contains every other node
+	 * Determines if current graph is semi connected, meaning that for every pair of
+	 * nodes at least one of them reaches the other one. It happens when the
+	 * components of the condensation, in topological order, are linked one after
+	 * another by edges (there is a path through all of them)
 	 * 
-	 * @return boolean true if graph is strongly connected. False otherwise
+	 * @return boolean true if graph is semi connected. False otherwise
 	 */
 	public boolean isSemiConnected() {
-		boolean stronglyConnected = true;
-		for (int currentNode = 0; currentNode < getSize(); currentNode++) {
-			double[] PD = dijkstra(nodes.get(currentNode).getElement());
-			for (int i = 0; i < PD.length; i++) {
-				if (i != currentNode && PD[i] == INFINITE) {
-					stronglyConnected = false;
+		computeComponentsIfOutdated();
+		if (componentCount <= 1)
+			return true;
+
+		// linked[c] is true when an edge goes from component c to component c + 1
+		boolean[] linked = new boolean[componentCount];
+		int linkedComponents = 0;
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				int c = componentOf[i];
+				if (componentOf[j] == c + 1 && !linked[c]) {
+					linked[c] = true;
+					linkedComponents++;
 				}
 			}
 		}
-		return stronglyConnected;
+		return linkedComponents == componentCount - 1;
 	}
 
 	/**
-	 * Determines if current graph is weakly connected. It is checked turning all
-	 * the edges and weights in our graph to bidirectional ones, and checking over
-	 * this new graph distribution if it is strongly connected. At the end the
-	 * previos edges and weight are settled again
+	 * Determines if current graph is weakly connected, meaning that it is
+	 * connected when the direction of the edges is ignored. Nodes joined by an
+	 * edge are merged in a disjoint set, so the graph is weakly connected if a
+	 * single set remains.
 	 * 
-	 * @return boolean true if the graph is strongly connected after turning their
-	 *         edges into bidirectional ones. False otherwise
+	 * @return boolean true if the graph is connected ignoring the direction of its
+	 *         edges. False otherwise
 	 */
 	public boolean isWeaklyConnected() {
-		boolean toRet;
-
-		boolean[][] edgesAux = edges;
-		double[][] weightAux = weight;
+		if (weaklyConnectedVersion == version)
+			return weaklyConnected;
 
-		turnEdgesToBidirectional();
-		toRet = this.isStronglyConnected();
-
-		edges = edgesAux;
-		weight = weightAux;
+		DisjointSet sets = new DisjointSet(getSize());
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				sets.union(i, j);
+			}
+		}
+		weaklyConnected = sets.getNumberOfSets() <= 1;
+		weaklyConnectedVersion = version;
 
-		return toRet;
+		return weaklyConnected;
 	}
 
 	/**
@@ -357,13 +417,12 @@ public class Graph<T> {
 	 */
 	public void turnEdgesToBidirectional() {
 		for (int i = 0; i < getSize(); i++) {
-			for (int j = 0; j < getSize(); j++) {
-				if (edges[i][j]) {
-					edges[j][i] = true;
-					weight[j][i] = weight[i][j];
-				}
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				setEdge(j, i, edgeWeight(i, position));
 			}
 		}
+		version++;
 	}
 
 	/**
@@ -408,9 +467,17 @@ public class Graph<T> {
 		// If dijkstra used we can obtain wrong data as it accesed weight original
 		// matrix
 		// (more changes needes, adding 1 in compute dijkstra method)
-		floydForShortestPathLength();
+		if (shortestPathLengthsVersion != version) {
+			floydForShortestPathLength();
+			// A copy is kept as later calls to floyd() overwrite A
+			shortestPathLengths = new double[getSize()][];
+			for (int k = 0; k < getSize(); k++) {
+				shortestPathLengths[k] = Arrays.copyOf(A[k], getSize());
+			}
+			shortestPathLengthsVersion = version;
+		}
 
-		return (int) A[i][j];
+		return (int) shortestPathLengths[i][j];
 	}
 
 	/**
@@ -421,7 +488,9 @@ public class Graph<T> {
 	 * @return T element being the center of the graph
 	 */
 	public T getCenter() {
-		floyd();
+		if (centerVersion == version)
+			return center;
+		floydIfOutdated();
 
 		List<Double> maximumCostsPerColumn = new ArrayList<Double>();
 		for (int i = 0; i < getSize(); i++) {
@@ -445,7 +514,9 @@ public class Graph<T> {
 			}
 		}
 
-		return nodes.get(minCostPosition).getElement();
+		center = nodes.get(minCostPosition).getElement();
+		centerVersion = version;
+		return center;
 	}
 
 	/**
@@ -456,29 +527,123 @@ public class Graph<T> {
 	 * @return true if graph contains cycles. False otherwise
 	 */
 	public boolean containsCycles() {
-		boolean containCycle = false;
+		return findCycle() != null;
+	}
 
-		for (int i = 0; i < getSize(); i++) {
-			resetVisited();
-			String traversed = nodes.get(i).getElement().toString() + "-";
-			for (int j = 0; j < getSize(); j++) {
-				if (edges[i][j]) {
-					traversed += DFPrint(j);
-				}
+	/**
+	 * Returns a cycle of the graph, as the elements of its nodes in the order the
+	 * edges go through them. The last node has an edge to the first one.
+	 * 
+	 * @return List with the nodes of the cycle, empty if the graph has no cycles
+	 */
+	public List<T> getCycle() {
+		List<T> cycle = new ArrayList<T>();
+		int[] indexes = findCycle();
+		if (indexes != null) {
+			for (int i : indexes) {
+				cycle.add(nodes.get(i).getElement());
 			}
+		}
+		return cycle;
+	}
 
-			String[] nodes = traversed.split("-");
-			// Set tracing if repeated elements were added in the traversal (cycle found)
-			Set<String> uniqueNodes = new HashSet<String>();
+	/**
+	 * Returns the elements of the graph in topological order, so every edge goes
+	 * from a node to a later one. Computed with Kahn algorithm: nodes without
+	 * incoming edges are taken one after another, removing their edges. O(V+E)
+	 * 
+	 * @return List with the elements sorted
+	 * @throws IllegalStateException if the graph contains cycles
+	 */
+	public List<T> topologicalOrder() {
+		int size = getSize();
+		int[] inDegree = new int[size];
+		for (int i = 0; i < size; i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				inDegree[j]++;
+			}
+		}
 
-			// we try to find a cycle in the string of the traversal
-			for (int currentNode = 0; currentNode < nodes.length; currentNode++) {
-				// Repeated element found if add returns false = cycle
-				if (!uniqueNodes.add(nodes[currentNode]))
-					return true;
+		int[] queue = new int[size];
+		int head = 0;
+		int tail = 0;
+		for (int i = 0; i < size; i++) {
+			if (inDegree[i] == 0)
+				queue[tail++] = i;
+		}
+		List<T> order = new ArrayList<T>(size);
+		while (head < tail) {
+			int current = queue[head++];
+			order.add(nodes.get(current).getElement());
+			for (int position = nextEdge(current, 0); position != INDEX_NOT_FOUND;
+					position = nextEdge(current, position + 1)) {
+				int j = edgeDestination(current, position);
+				if (--inDegree[j] == 0)
+					queue[tail++] = j;
 			}
-		} // for every node in the graph
-		return containCycle;
+		}
+
+		// Nodes of a cycle never lose all their incoming edges
+		if (order.size() < size)
+			throw new IllegalStateException("Graph contains cycles");
+		return order;
+	}
+
+	/* Colours of the nodes in the search for cycles */
+	private static final byte WHITE = 0; // Not reached yet
+	private static final byte GREY = 1; // In the current path of the search
+	private static final byte BLACK = 2; // Every node reachable from it explored
+
+	/**
+	 * Searches a cycle with a single Depth First Search over the whole graph. The
+	 * grey nodes form the path from the root of the search to the current node, so
+	 * an edge to a grey node closes a cycle made by the path from that node on.
+	 * O(V+E)
+	 * 
+	 * @return int[] with the indexes of the cycle, null if there is no cycle
+	 */
+	private int[] findCycle() {
+		int size = getSize();
+		byte[] colour = new byte[size];
+		int[] path = new int[size];
+		int[] nextPosition = new int[size]; // Position of the next edge to explore
+
+		for (int start = 0; start < size; start++) {
+			if (colour[start] != WHITE)
+				continue;
+
+			int pathSize = 0;
+			colour[start] = GREY;
+			nextPosition[start] = 0;
+			path[pathSize++] = start;
+
+			while (pathSize > 0) {
+				int current = path[pathSize - 1];
+				int position = nextEdge(current, nextPosition[current]);
+				if (position == INDEX_NOT_FOUND) { // Every neighbour explored
+					colour[current] = BLACK;
+					pathSize--;
+					continue;
+				}
+				nextPosition[current] = position + 1;
+				int j = edgeDestination(current, position);
+
+				if (colour[j] == GREY) {
+					int first = pathSize - 1;
+					while (path[first] != j) {
+						first--;
+					}
+					return Arrays.copyOfRange(path, first, pathSize);
+				}
+				if (colour[j] == WHITE) {
+					colour[j] = GREY;
+					nextPosition[j] = 0;
+					path[pathSize++] = j;
+				}
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -490,29 +655,202 @@ public class Graph<T> {
 	public String BFPrint(T element) {
 		checkInitialNode(element);
 
-		int startingNode = getNode(element);
-		resetVisited();
-		Queue<Integer> queue = new ArrayDeque<Integer>(getSize());
-		queue.add(startingNode);
+		StringBuilder traversed = new StringBuilder();
+		traverseGraphBF(getNode(element), i -> traversed.append(nodes.get(i).getElement()).append('-'));
+		return traversed.toString();
+	}
+
+	/**
+	 * Traverses the graph with Breadth First Search from the given node, passing
+	 * the index of every reached node to the visitor in the order they are
+	 * reached. The visitor must not start another traversal of this graph.
+	 * 
+	 * @param startingNode int index of the node to begin the search
+	 * @param visitor      IntConsumer receiving the index of every reached node
+	 */
+	public void traverseGraphBF(int startingNode, IntConsumer visitor) {
+		checkIndex(startingNode);
+
+		clearTraversal();
+		// Every node enters the queue once at most, so a plain array is enough
+		int[] queue = traversalBuffer;
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = startingNode;
+		traversalVisited.set(startingNode);
+		visitor.accept(startingNode);
+
+		while (head < tail) {
+			int current = queue[head++];
+			for (int position = nextEdge(current, 0); position != INDEX_NOT_FOUND;
+					position = nextEdge(current, position + 1)) {
+				int i = edgeDestination(current, position);
+				if (!traversalVisited.get(i)) {
+					traversalVisited.set(i);
+					visitor.accept(i);
+					queue[tail++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the indexes of the nodes reached by Breadth First Search from the
+	 * given element, in the order they are reached
+	 * 
+	 * @param element T element to begin the search
+	 * @return IntStream of node indexes
+	 */
+	public IntStream streamGraphBF(T element) {
+		checkInitialNode(element);
+
+		IntStream.Builder builder = IntStream.builder();
+		traverseGraphBF(getNode(element), builder);
+		return builder.build();
+	}
+
+	/*-------------- STRONGLY CONNECTED COMPONENTS --------------*/
+
+	// Component of every node, numbered in topological order of the condensation
+	private int[] componentOf;
+	private int componentCount;
+	private long componentsVersion = NOT_COMPUTED;
+
+	/**
+	 * Returns the strongly connected components of the graph, being every
+	 * component a maximal set of nodes reaching each other. Components are
+	 * returned in topological order: no edge goes from a component to a previous
+	 * one.
+	 * 
+	 * @return list of components, each one with its elements
+	 */
+	public List<List<T>> stronglyConnectedComponents() {
+		computeComponentsIfOutdated();
+
+		List<List<T>> components = new ArrayList<List<T>>(componentCount);
+		for (int c = 0; c < componentCount; c++) {
+			components.add(new ArrayList<T>());
+		}
+		for (int i = 0; i < getSize(); i++) {
+			components.get(componentOf[i]).add(nodes.get(i).getElement());
+		}
+		return components;
+	}
+
+	/**
+	 * Returns the condensation of the graph: a DAG with a node for every strongly
+	 * connected component, whose element is the position of the component in
+	 * stronglyConnectedComponents(). An edge exists between two components when
+	 * some node of the first one reaches a node of the second one, weighting the
+	 * cheapest of those edges.
+	 * 
+	 * @return Graph with ADJACENCY_LIST storage of the components
+	 * @throws Exception if the condensation can not be built
+	 */
+	public Graph<Integer> getCondensation() throws Exception {
+		computeComponentsIfOutdated();
+
+		Graph<Integer> condensation = new Graph<Integer>(componentCount, ADJACENCY_LIST);
+		for (int c = 0; c < componentCount; c++) {
+			condensation.addNode(c);
+		}
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				int from = componentOf[i];
+				int to = componentOf[j];
+				if (from != to && (!condensation.hasEdge(from, to)
+						|| edgeWeight(i, position) < condensation.getEdgeWeight(from, to)))
+					condensation.addEdge(from, to, edgeWeight(i, position));
+			}
+		}
+		return condensation;
+	}
 
-		String traversed = nodes.get(startingNode).getElement() + "-";
+	/**
+	 * Computes the strongly connected components with Tarjan algorithm, unless
+	 * they are already computed for the current version of the graph. The depth
+	 * first search is iterative, keeping for every node in the call stack the last
+	 * neighbour visited, so deep graphs do not overflow the stack. O(V+E)
+	 */
+	private void computeComponentsIfOutdated() {
+		if (componentsVersion == version)
+			return;
+
+		int size = getSize();
+		int[] index = new int[size]; // Order of discovery of every node (+1, 0 = not visited)
+		int[] low = new int[size]; // Lowest index reachable from the subtree of the node
+		int[] nextPosition = new int[size]; // Position of the next edge to explore
+		boolean[] onStack = new boolean[size];
+		int[] stack = new int[size]; // Nodes whose component is not assigned yet
+		int[] callStack = new int[size]; // Nodes being explored by the search
+		int stackSize = 0;
+		int counter = 0;
+		componentOf = new int[size];
+		componentCount = 0;
+
+		for (int start = 0; start < size; start++) {
+			if (index[start] != 0)
+				continue;
+
+			int callStackSize = 0;
+			index[start] = low[start] = ++counter;
+			nextPosition[start] = 0;
+			stack[stackSize++] = start;
+			onStack[start] = true;
+			callStack[callStackSize++] = start;
+
+			while (callStackSize > 0) {
+				int v = callStack[callStackSize - 1];
+				int position = nextEdge(v, nextPosition[v]);
+				if (position != INDEX_NOT_FOUND) {
+					nextPosition[v] = position + 1;
+					int w = edgeDestination(v, position);
+					if (index[w] == 0) { // Explore the neighbour
+						index[w] = low[w] = ++counter;
+						nextPosition[w] = 0;
+						stack[stackSize++] = w;
+						onStack[w] = true;
+						callStack[callStackSize++] = w;
+					} else if (onStack[w]) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+					continue;
+				}
 
-		while (!queue.isEmpty()) {
-			for (int i = 0; i < getSize(); i++) {
-				if (edges[queue.peek()][i] && !nodes.get(i).isVisited()) {
-					nodes.get(i).setVisited(true);
-					traversed += nodes.get(i).getElement() + "-";
-					queue.add(i);
+				// Every neighbour of v explored, return to its parent
+				callStackSize--;
+				if (callStackSize > 0) {
+					int parent = callStack[callStackSize - 1];
+					low[parent] = Math.min(low[parent], low[v]);
+				}
+				// v is the root of a component, formed by the nodes above it in the stack
+				if (low[v] == index[v]) {
+					int node;
+					do {
+						node = stack[--stackSize];
+						onStack[node] = false;
+						componentOf[node] = componentCount;
+					} while (node != v);
+					componentCount++;
 				}
 			}
-			queue.remove();
 		}
 
-		return traversed;
+		// Tarjan finds the components in reverse topological order
+		for (int i = 0; i < size; i++) {
+			componentOf[i] = componentCount - 1 - componentOf[i];
+		}
+		componentsVersion = version;
 	}
 
 	/*-------------- DEPTH FIRST SEARCH ALGORITHMS --------------*/
 
+	/* Reused by the traversals, so they do not allocate for every search */
+	private BitSet traversalVisited = new BitSet();
+	private int[] traversalBuffer = new int[0]; // Stack or queue of node indexes
+	private int[] traversalCursor = new int[0]; // Last neighbour explored of every node
+
 	/**
 	 * Method to initiate the traversal of the graph with Depth First Search given
 	 * an starting element. All nodes are reinitialized to false before.
@@ -526,28 +864,110 @@ public class Graph<T> {
 		if (i == INDEX_NOT_FOUND)
 			throw new IllegalArgumentException("Node does not exist");
 
-		resetVisited();
-
 		return DFPrint(i);
 	}
 
 	/**
-	 * Recursive method for traversing through all the children nodes of a given
-	 * current index, setting visited to true in all the nodes and retrieving its
-	 * elements.
+	 * Traverses through all the nodes reachable from a given current index with
+	 * Depth First Search, retrieving its elements in the order they are reached.
 	 * 
 	 * @param currentIndex integer to perform the search
 	 * @return String containing the element of current iteration and child ones
 	 */
 	public String DFPrint(int currentIndex) {
-		nodes.get(currentIndex).setVisited(true);
-		String traversed = nodes.get(currentIndex).getElement().toString() + "-";
-		for (int j = 0; j < getSize(); j++) {
-			if (edges[currentIndex][j] == true && !nodes.get(j).isVisited()) {
-				traversed += DFPrint(j);
+		StringBuilder traversed = new StringBuilder();
+		traverseGraphDF(currentIndex, i -> traversed.append(nodes.get(i).getElement()).append('-'));
+		return traversed.toString();
+	}
+
+	/**
+	 * Traverses the graph with Depth First Search from the given node, passing the
+	 * index of every reached node to the visitor in preorder. The visitor must not
+	 * start another traversal of this graph.
+	 * 
+	 * @param startingNode int index of the node to begin the search
+	 * @param visitor      IntConsumer receiving the index of every reached node
+	 */
+	public void traverseGraphDF(int startingNode, IntConsumer visitor) {
+		checkIndex(startingNode);
+
+		clearTraversal();
+		depthFirst(startingNode, visitor);
+	}
+
+	/**
+	 * Returns the indexes of the nodes reached by Depth First Search from the
+	 * given element, in preorder
+	 * 
+	 * @param element T element to begin the search
+	 * @return IntStream of node indexes
+	 */
+	public IntStream streamGraphDF(T element) {
+		checkInitialNode(element);
+
+		IntStream.Builder builder = IntStream.builder();
+		traverseGraphDF(getNode(element), builder);
+		return builder.build();
+	}
+
+	/**
+	 * Iterative Depth First Search from the given node over the nodes not visited
+	 * yet in the traversal. Every node in the stack keeps the last neighbour
+	 * explored, so nodes are reached in the same order than the recursive search
+	 * without growing the call stack.
+	 * 
+	 * @param startingNode int index of the node to begin the search
+	 * @param visitor      IntConsumer receiving the index of every reached node
+	 */
+	private void depthFirst(int startingNode, IntConsumer visitor) {
+		int[] stack = traversalBuffer;
+		int[] nextPosition = traversalCursor; // Position of the next edge to explore
+		int stackSize = 0;
+
+		traversalVisited.set(startingNode);
+		visitor.accept(startingNode);
+		stack[stackSize++] = startingNode;
+		nextPosition[startingNode] = 0;
+
+		while (stackSize > 0) {
+			int current = stack[stackSize - 1];
+			int position = nextEdge(current, nextPosition[current]);
+			while (position != INDEX_NOT_FOUND && traversalVisited.get(edgeDestination(current, position))) {
+				position = nextEdge(current, position + 1);
+			}
+			if (position == INDEX_NOT_FOUND) { // Every neighbour explored
+				stackSize--;
+				continue;
 			}
+			nextPosition[current] = position + 1;
+			int j = edgeDestination(current, position);
+			traversalVisited.set(j);
+			visitor.accept(j);
+			stack[stackSize++] = j;
+			nextPosition[j] = 0;
+		}
+	}
+
+	/**
+	 * Clears the visited nodes of the traversals, growing the buffers if the graph
+	 * has grown since the last one
+	 */
+	private void clearTraversal() {
+		traversalVisited.clear();
+		if (traversalBuffer.length < getSize()) {
+			traversalBuffer = new int[getSize()];
+			traversalCursor = new int[getSize()];
 		}
-		return traversed;
+	}
+
+	/**
+	 * Checks that the index corresponds to a node of the graph
+	 * 
+	 * @param index int to check
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= getSize())
+			throw new IllegalArgumentException("Node does not exist");
 	}
 
 	/**
@@ -564,6 +984,20 @@ public class Graph<T> {
 	protected double[][] A; // Matrix with minimum cost
 	protected int[][] P; // Matrix with minimum path cost (intermediate nodes)
 
+	/* Results memoized for the version of the graph they were computed for */
+	private long floydVersion = NOT_COMPUTED;
+	private double[][] shortestPathLengths;
+	private long shortestPathLengthsVersion = NOT_COMPUTED;
+	private T center;
+	private long centerVersion = NOT_COMPUTED;
+	private boolean weaklyConnected;
+	private long weaklyConnectedVersion = NOT_COMPUTED;
+
+	// Minimum number of nodes for floyd to split its rows among ForkJoinPool threads
+	private static final int FLOYD_PARALLEL_THRESHOLD = 256;
+	// Number of rows of A and P updated by a single floyd task
+	private static final int FLOYD_ROWS_PER_TASK = 32;
+
 	/**
 	 * Call to perform the floyd algorithm over our graph.
 	 * 
@@ -572,18 +1006,8 @@ public class Graph<T> {
 	 */
 	public void floyd(int iterations) {
 		initsFloyd(); // Initialize structures to start floyd algorithm
-		for (int k = 0; k < iterations; k++) {
-			for (int i = 0; i < getSize(); i++) {
-				for (int j = 0; j < getSize(); j++) {
-					// better path from i to j passing through k than
-					// the one already exising in A
-					if (A[i][k] + A[k][j] < A[i][j]) {
-						A[i][j] = A[i][k] + A[k][j]; // upade cost in A
-						P[i][j] = k; // update cost path in P (currentNode)
-					}
-				}
-			}
-		}
+		computeFloyd(iterations);
+		floydVersion = iterations >= getSize() ? version : NOT_COMPUTED;
 	}
 
 	/**
@@ -592,20 +1016,96 @@ public class Graph<T> {
 	 */
 	public void floydForShortestPathLength() {
 		initsFloydForShortestPathLength(); // Initialize structures to start floyd algorithm
-		for (int k = 0; k < getSize(); k++) {
-			for (int i = 0; i < getSize(); i++) {
-				for (int j = 0; j < getSize(); j++) {
-					// better path from i to j passing through k than
-					// the one already exising in A
-					if (A[i][k] + A[k][j] < A[i][j]) {
-						A[i][j] = A[i][k] + A[k][j]; // upade cost in A
-						P[i][j] = k; // update cost path in P (currentNode)
-					}
+		computeFloyd(getSize());
+		floydVersion = NOT_COMPUTED; // A and P no longer contain weighted costs
+	}
+
+	/**
+	 * Performs floyd only if A and P do not contain yet the weighted costs for the
+	 * current version of the graph
+	 */
+	private void floydIfOutdated() {
+		if (floydVersion != version)
+			floyd();
+	}
+
+	/**
+	 * Main loop of floyd once A and P are initialized. During iteration k row k
+	 * and column k of A can not change (A[k][k] is 0 and weights are >= 0), so
+	 * every row can be updated independently. Big graphs split the rows in tiles
+	 * updated in parallel by the common ForkJoinPool, waiting for all of them
+	 * before the next k. Every cell receives the same updates in the same order as
+	 * the serial version, so A and P are exactly the same.
+	 * 
+	 * @param iterations integer of nodes to be taken into account
+	 */
+	private void computeFloyd(int iterations) {
+		int size = getSize();
+		for (int k = 0; k < iterations; k++) {
+			if (size < FLOYD_PARALLEL_THRESHOLD)
+				floydRows(k, 0, size, size);
+			else
+				ForkJoinPool.commonPool().invoke(new FloydTask(k, 0, size, size));
+		}
+	}
+
+	/**
+	 * Performs iteration k of floyd over the rows [from, to) of A and P
+	 * 
+	 * @param k    int node used as intermediate in this iteration
+	 * @param from int first row to be updated
+	 * @param to   int row after the last one to be updated
+	 * @param size int number of nodes in the graph
+	 */
+	private void floydRows(int k, int from, int to, int size) {
+		double[] Ak = A[k];
+		for (int i = from; i < to; i++) {
+			double Aik = A[i][k];
+			if (Aik == INFINITE) // k is not reachable from i, no path improves
+				continue;
+			double[] Ai = A[i];
+			int[] Pi = P[i];
+			for (int j = 0; j < size; j++) {
+				// better path from i to j passing through k than
+				// the one already exising in A
+				if (Aik + Ak[j] < Ai[j]) {
+					Ai[j] = Aik + Ak[j]; // upade cost in A
+					Pi[j] = k; // update cost path in P (currentNode)
 				}
 			}
 		}
 	}
 
+	/**
+	 * Task updating a range of rows for a single floyd iteration, splitting itself
+	 * in halves until FLOYD_ROWS_PER_TASK rows are left
+	 */
+	private class FloydTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int k;
+		private final int from;
+		private final int to;
+		private final int size;
+
+		private FloydTask(int k, int from, int to, int size) {
+			this.k = k;
+			this.from = from;
+			this.to = to;
+			this.size = size;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= FLOYD_ROWS_PER_TASK) {
+				floydRows(k, from, to, size);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new FloydTask(k, from, middle, size), new FloydTask(k, middle, to, size));
+		}
+	}
+
 	/**
 	 * Call to perform the floyd algorithm over our graph algorithm
 	 */
@@ -618,19 +1118,31 @@ public class Graph<T> {
 	 * structures. A matrix with INFINITE values and P matrix with -1 values.
 	 */
 	private void initsFloyd() {
+		ensureFloydCapacity();
 		for (int i = 0; i < getSize(); i++) {
 			for (int j = 0; j < getSize(); j++) {
-				if (i == j) // Fill diagonal with zeros
-					A[i][j] = 0.0;
-				else {
-					if (edges[i][j]) // A direct graph between nodes exists
-						A[i][j] = weight[i][j];
-
-					else // Othetwise INFINITE cost among these nodes
-						A[i][j] = INFINITE;
-				}
+				// Otherwise INFINITE cost among these nodes
+				A[i][j] = INFINITE;
 				P[i][j] = EMPTY;
 			}
+			// A direct graph between nodes exists
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				A[i][j] = edgeWeight(i, position);
+			}
+			A[i][i] = 0.0; // Fill diagonal with zeros
+		}
+	}
+
+	/**
+	 * Creates the floyd A and P matrices when they are not big enough for the
+	 * current nodes of the graph. Only happens with ADJACENCY_LIST storage, as
+	 * ADJACENCY_MATRIX creates them for the whole capacity at the constructor
+	 */
+	private void ensureFloydCapacity() {
+		if (A == null || A.length < getSize()) {
+			A = new double[getSize()][getSize()];
+			P = new int[getSize()][getSize()];
 		}
 	}
 
@@ -640,19 +1152,19 @@ public class Graph<T> {
 	 * not the weights among them
 	 */
 	private void initsFloydForShortestPathLength() {
+		ensureFloydCapacity();
 		for (int i = 0; i < getSize(); i++) {
 			for (int j = 0; j < getSize(); j++) {
-				if (i == j) // Fill diagonal with zeros
-					A[i][j] = 0.0;
-				else {
-					if (edges[i][j]) // A direct graph between nodes exists
-						A[i][j] = 1;
-
-					else // Othetwise INFINITE cost among these nodes
-						A[i][j] = INFINITE;
-				}
+				// Otherwise INFINITE cost among these nodes
+				A[i][j] = INFINITE;
 				P[i][j] = EMPTY;
 			}
+			// A direct graph between nodes exists
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				A[i][j] = 1;
+			}
+			A[i][i] = 0.0; // Fill diagonal with zeros
 		}
 	}
 
@@ -716,6 +1228,27 @@ public class Graph<T> {
 	protected int[] PD;
 	protected List<GraphNode<T>> S; // Set containing the pivots already used for dijkstra algorithm
 
+	/**
+	 * Entry of the priority queue used by dijkstra. Entries are ordered by cost
+	 * and then by node index, so pivots are chosen in the same order as a linear
+	 * scan of D would do.
+	 */
+	private static class DijkstraEntry implements Comparable<DijkstraEntry> {
+		private final int node;
+		private final double cost;
+
+		private DijkstraEntry(int node, double cost) {
+			this.node = node;
+			this.cost = cost;
+		}
+
+		@Override
+		public int compareTo(DijkstraEntry other) {
+			int comparison = Double.compare(cost, other.cost);
+			return comparison != 0 ? comparison : Integer.compare(node, other.node);
+		}
+	}
+
 	/**
 	 * Call to peform Dijkstra algorihm over the graph from a starting node
 	 * 
@@ -726,25 +1259,51 @@ public class Graph<T> {
 		int initialElementIndex = getNode(element);
 		initsDijkstra(initialElementIndex);
 
+		computeDijkstra(false);
+
+		return D;
+	}
+
+	/**
+	 * Main loop of dijkstra once D and PD are initialized. Pivots are taken from a
+	 * binary heap instead of scanning D, so the algorithm is O((V+E) log V).
+	 * Instead of decreasing the key of a node, a new entry is added every time its
+	 * cost improves, and entries older than the current cost in D are discarded
+	 * when they reach the top of the heap (lazy deletion).
+	 * 
+	 * @param unitWeights true to take every edge as cost 1 (shortest path).
+	 *                    Otherwise the weights of the edges are used
+	 */
+	private void computeDijkstra(boolean unitWeights) {
 		S = new ArrayList<>(getSize());
+		boolean[] pivots = new boolean[getSize()];
+
+		BinaryHeap<DijkstraEntry> heap = new BinaryHeap<DijkstraEntry>();
+		for (int i = 0; i < getSize(); i++) {
+			if (D[i] != INFINITE)
+				heap.add(new DijkstraEntry(i, D[i]));
+		}
 
-		int pivot = initialElementIndex;
-		nodes.get(initialElementIndex).setVisited(true);
+		while (!heap.isEmpty()) {
+			DijkstraEntry entry = heap.getMin();
+			int pivot = entry.node;
+			// Outdated entry of an already used pivot or with a cost already improved
+			if (pivots[pivot] || entry.cost > D[pivot])
+				continue;
 
-		while (S.size() < getSize()) {
+			pivots[pivot] = true;
 			S.add(nodes.get(pivot));
-			for (int i = 0; i < getSize(); i++) {
-				if (edges[pivot][i] && D[pivot] != INFINITE) {
-					if (D[pivot] + weight[pivot][i] < D[i]) {
-						D[i] = D[pivot] + weight[pivot][i];
-						PD[i] = pivot;
-					}
+			for (int position = nextEdge(pivot, 0); position != INDEX_NOT_FOUND;
+					position = nextEdge(pivot, position + 1)) {
+				int i = edgeDestination(pivot, position);
+				double cost = D[pivot] + (unitWeights ? 1 : edgeWeight(pivot, position));
+				if (!pivots[i] && cost < D[i]) {
+					D[i] = cost;
+					PD[i] = pivot;
+					heap.add(new DijkstraEntry(i, cost));
 				}
 			}
-			pivot = getPivot();
 		}
-
-		return D;
 	}
 
 	/**
@@ -761,46 +1320,11 @@ public class Graph<T> {
 		int initialElementIndex = getNode(element);
 		initsDijkstraForShortestPathLenght(initialElementIndex);
 
-		S = new ArrayList<>(getSize());
-
-		int pivot = initialElementIndex;
-		nodes.get(initialElementIndex).setVisited(true);
-
-		while (S.size() < getSize()) {
-			S.add(nodes.get(pivot));
-			for (int i = 0; i < getSize(); i++) {
-				if (edges[pivot][i] && D[pivot] != INFINITE) {
-					if (D[pivot] + 1 < D[i]) {
-						D[i] = D[pivot] + 1;
-						PD[i] = pivot;
-					}
-				}
-			}
-			pivot = getPivot();
-		}
+		computeDijkstra(true);
 
 		return D;
 	}
 
-	/**
-	 * Gets the best pivot for dijkstra taking into account D cost matrix current
-	 * status
-	 * 
-	 * @return int representing the node selected to be pivot
-	 */
-	private int getPivot() {
-		double minCost = INFINITE;
-		int minCostPosition = 0;
-		for (int i = 0; i < getSize(); i++) {
-			if (D[i] < minCost && !nodes.get(i).isVisited()) {
-				minCost = D[i];
-				minCostPosition = i;
-			}
-		}
-		nodes.get(minCostPosition).setVisited(true);
-		return minCostPosition;
-	}
-
 	/**
 	 * Initialize the D and PD matrices for dijkstra algorithm
 	 * 
@@ -815,22 +1339,18 @@ public class Graph<T> {
 		resetVisited();
 
 		for (int i = 0; i < getSize(); i++) {
-			if (i == elementIndex)
-				D[i] = 0;
-			else if (edges[elementIndex][i] && i != elementIndex)
-				D[i] = weight[elementIndex][i];
-			else
-				D[i] = INFINITE;
+			D[i] = INFINITE;
+			PD[i] = EMPTY;
 		}
 
-		for (int i = 0; i < getSize(); i++) {
-			if (i == elementIndex)
-				PD[i] = EMPTY;
-			else if (edges[elementIndex][i])
-				PD[i] = elementIndex;
-			else
-				PD[i] = EMPTY;
+		for (int position = nextEdge(elementIndex, 0); position != INDEX_NOT_FOUND;
+				position = nextEdge(elementIndex, position + 1)) {
+			int i = edgeDestination(elementIndex, position);
+			D[i] = edgeWeight(elementIndex, position);
+			PD[i] = elementIndex;
 		}
+		D[elementIndex] = 0;
+		PD[elementIndex] = EMPTY;
 	}
 
 	/**
@@ -849,22 +1369,18 @@ public class Graph<T> {
 		resetVisited();
 
 		for (int i = 0; i < getSize(); i++) {
-			if (i == elementIndex)
-				D[i] = 0;
-			else if (edges[elementIndex][i] && i != elementIndex)
-				D[i] = 1; // Where edges exists replace all cost by 1 to get shortest path
-			else
-				D[i] = INFINITE;
+			D[i] = INFINITE;
+			PD[i] = EMPTY;
 		}
 
-		for (int i = 0; i < getSize(); i++) {
-			if (i == elementIndex)
-				PD[i] = EMPTY;
-			else if (edges[elementIndex][i])
-				PD[i] = elementIndex;
-			else
-				PD[i] = EMPTY;
+		for (int position = nextEdge(elementIndex, 0); position != INDEX_NOT_FOUND;
+				position = nextEdge(elementIndex, position + 1)) {
+			int i = edgeDestination(elementIndex, position);
+			D[i] = 1; // Where edges exists replace all cost by 1 to get shortest path
+			PD[i] = elementIndex;
 		}
+		D[elementIndex] = 0;
+		PD[elementIndex] = EMPTY;
 	}
 
 	/**
@@ -925,54 +1441,360 @@ public class Graph<T> {
 	}
 
 	/**
-	 * Testing purposes -- Return the edges matrix of the graph
+	 * Testing purposes -- Return the edges matrix of the graph. With
+	 * ADJACENCY_LIST storage a getSize() x getSize() matrix is built from the lists
 	 * 
 	 * @return
 	 */
 	protected boolean[][] getEdges() {
-		return edges;
+		if (adjacency == null)
+			return edges;
+
+		boolean[][] matrix = new boolean[getSize()][getSize()];
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				matrix[i][j] = true;
+			}
+		}
+		return matrix;
 	}
 
 	/**
-	 * Testing purposes -- Return the weight matrix of the graph
+	 * Testing purposes -- Return the weight matrix of the graph. With
+	 * ADJACENCY_LIST storage a getSize() x getSize() matrix is built from the lists
 	 * 
 	 * @return
 	 */
 	protected double[][] getWeight() {
-		return weight;
+		if (adjacency == null)
+			return weight;
+
+		double[][] matrix = new double[getSize()][getSize()];
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				matrix[i][j] = edgeWeight(i, position);
+			}
+		}
+		return matrix;
+	}
+
+	/*-------------- EDGE STORAGE --------------*/
+
+	/**
+	 * Indicates if an edge exists between two nodes given its indexes, no matter
+	 * the storage type of the graph
+	 * 
+	 * @param i int index of the origin node
+	 * @param j int index of the destination node
+	 * @return true if the edge exists. False otherwise
+	 */
+	protected boolean hasEdge(int i, int j) {
+		return adjacency != null ? adjacency.existsEdge(i, j) : edges[i][j];
+	}
+
+	/**
+	 * Returns the weight of the edge between two nodes given its indexes, 0.0 if
+	 * the edge does not exist
+	 * 
+	 * @param i int index of the origin node
+	 * @param j int index of the destination node
+	 * @return double weight of the edge
+	 */
+	protected double getEdgeWeight(int i, int j) {
+		return adjacency != null ? adjacency.getWeight(i, j) : weight[i][j];
+	}
+
+	/**
+	 * Adds or updates the edge between two nodes given its indexes
+	 * 
+	 * @param i      int index of the origin node
+	 * @param j      int index of the destination node
+	 * @param weight double to be assigned to the edge
+	 */
+	private void setEdge(int i, int j, double weight) {
+		if (adjacency != null) {
+			adjacency.setEdge(i, j, weight);
+		} else {
+			this.edges[i][j] = true;
+			this.weight[i][j] = weight;
+		}
+	}
+
+	/**
+	 * Removes the edge between two nodes given its indexes
+	 * 
+	 * @param i int index of the origin node
+	 * @param j int index of the destination node
+	 */
+	private void unsetEdge(int i, int j) {
+		if (adjacency != null) {
+			adjacency.removeEdge(i, j);
+		} else {
+			this.edges[i][j] = false;
+			this.weight[i][j] = 0.0;
+		}
+	}
+
+	/**
+	 * Returns the position of the first out-edge of node i at or after the given
+	 * position, so the neighbours of a node are traversed with:
+	 * 
+	 * for (position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position =
+	 * nextEdge(i, position + 1))
+	 * 
+	 * and edgeDestination(i, position). ADJACENCY_LIST positions are the ones of
+	 * the out-edges of the node, so every step takes O(1) and a whole scan
+	 * O(outDegree). ADJACENCY_MATRIX positions are the columns of its row, which
+	 * is scanned.
+	 * 
+	 * @param i        int index of the origin node
+	 * @param position int first position to check (0 to start)
+	 * @return position of the next edge or INDEX_NOT_FOUND if there are no more
+	 */
+	protected int nextEdge(int i, int position) {
+		if (adjacency != null)
+			return position < adjacency.getOutDegree(i) ? position : INDEX_NOT_FOUND;
+
+		for (int k = position; k < getSize(); k++) {
+			if (edges[i][k])
+				return k;
+		}
+		return INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * Returns the node reached by the out-edge of node i at a position given by
+	 * nextEdge
+	 * 
+	 * @param i        int index of the origin node
+	 * @param position int position of the edge
+	 * @return index of the destination node
+	 */
+	protected int edgeDestination(int i, int position) {
+		return adjacency != null ? adjacency.getDestination(i, position) : position;
+	}
+
+	/**
+	 * Returns the weight of the out-edge of node i at a position given by
+	 * nextEdge, without searching its destination
+	 * 
+	 * @param i        int index of the origin node
+	 * @param position int position of the edge
+	 * @return double weight of the edge
+	 */
+	protected double edgeWeight(int i, int position) {
+		return adjacency != null ? adjacency.getWeightAt(i, position) : weight[i][position];
 	}
 	
+	/*-------------- MINIMUM SPANNING TREES --------------*/
+
+	private SpanningTree<T> kruskalTree;
+	private long kruskalVersion = NOT_COMPUTED;
+	private long symmetricVersion = NOT_COMPUTED;
+
+	/**
+	 * Checks every edge has a reverse edge with the same weight, as Prim follows
+	 * the out-edges of the tree while Kruskal joins the nodes of an edge in any
+	 * direction. Both methods only agree on undirected graphs, so asymmetric ones
+	 * are rejected. The check is done once for every version of the graph.
+	 */
+	private void checkSymmetric() {
+		if (symmetricVersion == version)
+			return;
+
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				if (!hasEdge(j, i) || getEdgeWeight(j, i) != edgeWeight(i, position))
+					throw new IllegalStateException(
+							"Spanning trees need every edge in both directions with the same weight");
+			}
+		}
+		symmetricVersion = version;
+	}
+
+	/**
+	 * Candidate edge of a spanning tree. Edges are ordered by weight, then by the
+	 * order of their origin node and then by destination index, so ties are broken
+	 * as a scan of the tree nodes in the order they were added would do.
+	 */
+	private static class SpanningEdge implements Comparable<SpanningEdge> {
+		private final int origin;
+		private final int destination;
+		private final double weight;
+		private final int order;
+
+		private SpanningEdge(int origin, int destination, double weight, int order) {
+			this.origin = origin;
+			this.destination = destination;
+			this.weight = weight;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(SpanningEdge other) {
+			int comparison = Double.compare(weight, other.weight);
+			if (comparison == 0)
+				comparison = Integer.compare(order, other.order);
+			return comparison != 0 ? comparison : Integer.compare(destination, other.destination);
+		}
+	}
+
+	/**
+	 * Returns the elements of the minimum spanning tree built with Prim from the
+	 * given element, in the order they are added
+	 * 
+	 * @param element T element to begin the tree
+	 * @return String with the list of elements
+	 */
 	public String prim(T element) {
-		List<Integer> nodesToInspectEdges = new ArrayList<Integer>();
-		List<T> nodesTraversed = new ArrayList<T>();
-		double costPath = 0.0;
-		nodesToInspectEdges.add( getNode(element) );
-		nodesTraversed.add(element);
-		nodes.get( getNode(element) ).setVisited(true);
-		while(nodesToInspectEdges.size() < getSize()) {
-			int[] edge = getMinimumCostEdge(nodesToInspectEdges); 
-			costPath += weight[edge[0]][edge[1]]; 
-			nodesTraversed.add( nodes.get(edge[1]).getElement() );
-			nodesToInspectEdges.add( edge[1] );
-		}
-		
-		System.out.println(String.format("Cost of the solution: %s", costPath));
-		return nodesTraversed.toString();
-	}
-
-	private int[] getMinimumCostEdge(List<Integer> nodesToInspectEdges) {
-		int[] edge = new int[2];
-		double minCost = INFINITE;
-		for(Integer i : nodesToInspectEdges) {
-			for(int j=0;j<getSize();j++) {
-				if(edges[i][j] && weight[i][j] < minCost && !nodes.get(j).isVisited()) {
-					minCost = weight[i][j];
-					edge[0] = i;
-					edge[1] = j;
+		return primTree(element).getNodes().toString();
+	}
+
+	/**
+	 * Builds the minimum spanning tree of the nodes reachable from the given
+	 * element with Prim algorithm. The candidate edges leaving the tree are kept
+	 * in a priority queue, discarding the ones reaching nodes already added when
+	 * they are taken. O(E log E)
+	 * 
+	 * @param element T element to begin the tree
+	 * @return SpanningTree with the nodes, edges and cost
+	 * @throws IllegalStateException if an edge has no reverse edge with the same
+	 *                               weight
+	 */
+	public SpanningTree<T> primTree(T element) {
+		checkInitialNode(element);
+		checkSymmetric();
+
+		List<T> treeNodes = new ArrayList<T>();
+		List<SpanningTree.Edge<T>> treeEdges = new ArrayList<SpanningTree.Edge<T>>();
+		double cost = growPrimTree(getNode(element), new boolean[getSize()], treeNodes, treeEdges);
+		return new SpanningTree<T>(treeNodes, treeEdges, cost, 1);
+	}
+
+	/**
+	 * Builds a minimum spanning forest with Prim algorithm, beginning a new tree
+	 * from the first node not added every time a tree can not grow anymore
+	 * 
+	 * @return SpanningTree with the nodes, edges and cost of every tree
+	 * @throws IllegalStateException if an edge has no reverse edge with the same
+	 *                               weight
+	 */
+	public SpanningTree<T> primForest() {
+		checkSymmetric();
+		List<T> treeNodes = new ArrayList<T>();
+		List<SpanningTree.Edge<T>> treeEdges = new ArrayList<SpanningTree.Edge<T>>();
+		boolean[] inTree = new boolean[getSize()];
+		double cost = 0.0;
+		int numberOfTrees = 0;
+		for (int i = 0; i < getSize(); i++) {
+			if (!inTree[i]) {
+				cost += growPrimTree(i, inTree, treeNodes, treeEdges);
+				numberOfTrees++;
+			}
+		}
+		return new SpanningTree<T>(treeNodes, treeEdges, cost, numberOfTrees);
+	}
+
+	/**
+	 * Grows a tree with Prim algorithm from the given node over the nodes not in
+	 * any tree yet
+	 * 
+	 * @param root      int index of the first node of the tree
+	 * @param inTree    boolean[] nodes already added to a tree
+	 * @param treeNodes List where the elements added are appended
+	 * @param treeEdges List where the edges added are appended
+	 * @return double cost of the tree
+	 */
+	private double growPrimTree(int root, boolean[] inTree, List<T> treeNodes, List<SpanningTree.Edge<T>> treeEdges) {
+		BinaryHeap<SpanningEdge> candidates = new BinaryHeap<SpanningEdge>();
+		double cost = 0.0;
+		int order = 0;
+		int current = root;
+		inTree[root] = true;
+		treeNodes.add(nodes.get(root).getElement());
+
+		while (current != INDEX_NOT_FOUND) {
+			for (int position = nextEdge(current, 0); position != INDEX_NOT_FOUND;
+					position = nextEdge(current, position + 1)) {
+				int j = edgeDestination(current, position);
+				if (!inTree[j])
+					candidates.add(new SpanningEdge(current, j, edgeWeight(current, position), order));
+			}
+			order++;
+
+			current = INDEX_NOT_FOUND;
+			while (!candidates.isEmpty() && current == INDEX_NOT_FOUND) {
+				SpanningEdge edge = candidates.getMin();
+				if (!inTree[edge.destination]) { // Edges to nodes already added are outdated
+					current = edge.destination;
+					inTree[current] = true;
+					cost += edge.weight;
+					treeNodes.add(nodes.get(current).getElement());
+					treeEdges.add(toTreeEdge(edge));
 				}
 			}
 		}
-		nodes.get( edge[1] ).setVisited(true);
-		return edge;
+		return cost;
+	}
+
+	/**
+	 * Builds a minimum spanning forest with Kruskal algorithm: edges are taken in
+	 * increasing weight, keeping the ones joining two different trees of a
+	 * disjoint set. The result is computed once for every version of the graph.
+	 * O(E log E)
+	 * 
+	 * @return SpanningTree with the nodes, edges and cost of every tree. Nodes are
+	 *         in index order
+	 * @throws IllegalStateException if an edge has no reverse edge with the same
+	 *                               weight
+	 */
+	public SpanningTree<T> kruskal() {
+		if (kruskalVersion == version)
+			return kruskalTree;
+		checkSymmetric();
+
+		List<SpanningEdge> candidates = new ArrayList<SpanningEdge>();
+		for (int i = 0; i < getSize(); i++) {
+			for (int position = nextEdge(i, 0); position != INDEX_NOT_FOUND; position = nextEdge(i, position + 1)) {
+				int j = edgeDestination(i, position);
+				if (i != j)
+					candidates.add(new SpanningEdge(i, j, edgeWeight(i, position), i));
+			}
+		}
+		candidates.sort(null);
+
+		DisjointSet trees = new DisjointSet(getSize());
+		List<SpanningTree.Edge<T>> treeEdges = new ArrayList<SpanningTree.Edge<T>>();
+		double cost = 0.0;
+		for (SpanningEdge edge : candidates) {
+			if (trees.union(edge.origin, edge.destination)) {
+				cost += edge.weight;
+				treeEdges.add(toTreeEdge(edge));
+				if (trees.getNumberOfSets() == 1)
+					break;
+			}
+		}
+
+		List<T> treeNodes = new ArrayList<T>(getSize());
+		for (int i = 0; i < getSize(); i++) {
+			treeNodes.add(nodes.get(i).getElement());
+		}
+		kruskalTree = new SpanningTree<T>(treeNodes, treeEdges, cost, trees.getNumberOfSets());
+		kruskalVersion = version;
+		return kruskalTree;
+	}
+
+	/**
+	 * Returns the edge of the result for the given candidate edge
+	 * 
+	 * @param edge SpanningEdge with node indexes
+	 * @return SpanningTree.Edge with node elements
+	 */
+	private SpanningTree.Edge<T> toTreeEdge(SpanningEdge edge) {
+		return new SpanningTree.Edge<T>(nodes.get(edge.origin).getElement(), nodes.get(edge.destination).getElement(),
+				edge.weight);
 	}
 }
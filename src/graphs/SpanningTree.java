@@ -0,0 +1,134 @@
+package graphs;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a minimum spanning tree algorithm: the nodes in the order they were
+ * added, the edges chosen and their total cost. When the graph is not connected
+ * it holds a spanning forest, with a tree for every connected part.
+ * 
+ * @author UO271506
+ *
+ * @param <T>
+ */
+public class SpanningTree<T> {
+
+	private List<T> nodes;
+	private List<Edge<T>> edges;
+	private double cost;
+	private int numberOfTrees;
+
+	/**
+	 * Constructor to initialize the SpanningTree
+	 * 
+	 * @param nodes         List of elements in the order they were added
+	 * @param edges         List of edges chosen
+	 * @param cost          double sum of the weights of the edges
+	 * @param numberOfTrees int number of trees in the forest
+	 */
+	SpanningTree(List<T> nodes, List<Edge<T>> edges, double cost, int numberOfTrees) {
+		this.nodes = Collections.unmodifiableList(nodes);
+		this.edges = Collections.unmodifiableList(edges);
+		this.cost = cost;
+		this.numberOfTrees = numberOfTrees;
+	}
+
+	/**
+	 * Returns the elements of the nodes in the order they were added
+	 * 
+	 * @return List of elements
+	 */
+	public List<T> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the edges of the tree in the order they were chosen
+	 * 
+	 * @return List of edges
+	 */
+	public List<Edge<T>> getEdges() {
+		return edges;
+	}
+
+	/**
+	 * Returns the total cost of the tree
+	 * 
+	 * @return double sum of the weights of its edges
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * Returns the number of trees, greater than one when it is a spanning forest of
+	 * a graph not connected
+	 * 
+	 * @return int number of trees
+	 */
+	public int getNumberOfTrees() {
+		return numberOfTrees;
+	}
+
+	@Override
+	public String toString() {
+		return edges.toString() + " cost " + cost;
+	}
+
+	/**
+	 * Edge of a spanning tree
+	 *
+	 * @param <T>
+	 */
+	public static class Edge<T> {
+		private T origin;
+		private T destination;
+		private double weight;
+
+		/**
+		 * Constructor to initialize the Edge
+		 * 
+		 * @param origin      T element of the origin node
+		 * @param destination T element of the destination node
+		 * @param weight      double weight of the edge
+		 */
+		Edge(T origin, T destination, double weight) {
+			this.origin = origin;
+			this.destination = destination;
+			this.weight = weight;
+		}
+
+		/**
+		 * Returns the element of the origin node
+		 * 
+		 * @return T origin
+		 */
+		public T getOrigin() {
+			return origin;
+		}
+
+		/**
+		 * Returns the element of the destination node
+		 * 
+		 * @return T destination
+		 */
+		public T getDestination() {
+			return destination;
+		}
+
+		/**
+		 * Returns the weight of the edge
+		 * 
+		 * @return double weight
+		 */
+		public double getWeight() {
+			return weight;
+		}
+
+		@Override
+		public String toString() {
+			return origin + "-" + destination + "(" + weight + ")";
+		}
+	}
+}
@@ -1,11 +1,30 @@
 package hash.hashMap;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import hash.hashTable.HashTableMetrics;
 
 public class HashMap<K, V> {
-		
-	private List<HashMapNode<K, V>> associativeArray;
+
+	/* STATUS of every node in the associative array */
+	private static final byte EMPTY = 0;
+	private static final byte VALID = 1;
+	private static final byte DELETED = 2;
+
+	// Associative array kept as parallel arrays: key, value, hash code of the key
+	// and status of every node. Hash codes are cached so resizing does not call
+	// hashCode() again
+	private Object[] keys;
+	private Object[] values;
+	private int[] hashes;
+	private byte[] status;
+	// ROBIN_HOOD only: number of nodes between the first f value of every key and its node
+	private int[] distances;
 	// Represents the maximum size of the associative array
 	private int B;
 	private int redispersionType;
@@ -16,97 +35,595 @@ public class HashMap<K, V> {
 	// Stores the number of valid nodes in the associative array (nodes VALID storing an element)
 	private int validHashNodes;
 	
+	// Stores the number of DELETED nodes, counted with the valid ones to decide when the table is rebuilt
+	private int deletedHashNodes;
+	
+	// LINEAR_PROBING only: removed keys are filled moving back the next ones in their sequence
+	private boolean backwardShift = false;
+	
+	// Stores the number of collisions of all the operations over the map
+	private long numberOfCollisions = 0;
+	
+	// Per operation counters and probe lengths, not recorded unless enabled
+	private HashTableMetrics metrics = HashTableMetrics.NO_OP;
+	
 	public static final int LINEAR_PROBING = 0;
 	public static final int QUADRATIC_PROBING = 1;
 	public static final int DOUBLE_HASHING = 2;
+	public static final int ROBIN_HOOD = 3;
+	
+	public static final int PRIME_CAPACITY = 0;
+	public static final int POWER_OF_TWO_CAPACITY = 1; // f values taken with a mask instead of modulo
 	
 	private static final int NOT_ASSIGNED = -1;
 	
+	private int capacityType;
+	private int mask; // B - 1 with POWER_OF_TWO_CAPACITY
+	
 	public HashMap(int B, int redispersionType, double maxLF) {
-		this.associativeArray = new ArrayList<HashMapNode<K, V>>();
-		this.B = B;
-		for(int i = 0; i < B; i++) {
-			associativeArray.add(new HashMapNode<K, V>());
-		}
+		this(B, redispersionType, maxLF, NOT_ASSIGNED, PRIME_CAPACITY);
+	}
+	
+	public HashMap(int B, int redispersionType, double maxLF, double minLF) {
+		this(B, redispersionType, maxLF, minLF, PRIME_CAPACITY);
+	}
+	
+	/**
+	 * Constructor choosing the capacity type. With POWER_OF_TWO_CAPACITY, B is
+	 * rounded up to a power of two and f values are computed with a mask over a
+	 * spread of the hash code
+	 * 
+	 * @param B initial size of the table
+	 * @param redispersionType collision strategy
+	 * @param maxLF load factor over which the table grows
+	 * @param minLF load factor under which the table shrinks (0 to never shrink)
+	 * @param capacityType PRIME_CAPACITY or POWER_OF_TWO_CAPACITY
+	 */
+	public HashMap(int B, int redispersionType, double maxLF, double minLF, int capacityType) {
+		if(capacityType != PRIME_CAPACITY && capacityType != POWER_OF_TWO_CAPACITY)
+			throw new IllegalArgumentException("Unknown capacity type");
+		
+		this.capacityType = capacityType;
 		this.redispersionType = redispersionType;
 		this.maxLF = maxLF;
-		this.R = getPrevPrimeNumber(B);
+		this.minLF = minLF;
 		this.validHashNodes = 0;
+		allocate(capacityType == POWER_OF_TWO_CAPACITY ? nextPowerOfTwo(B) : B);
 	}
 	
-	public HashMap(int B, int redispersionType, double maxLF, double minLF) {
-		this(B, redispersionType, maxLF);
-		this.minLF = minLF;
+	/**
+	 * Assigns the size of the table, creating its empty arrays and computing R or the mask
+	 * 
+	 * @param size new B
+	 */
+	private void allocate(int size) {
+		this.B = size;
+		this.keys = new Object[B];
+		this.values = new Object[B];
+		this.hashes = new int[B];
+		this.status = new byte[B];
+		this.deletedHashNodes = 0;
+		if(redispersionType == ROBIN_HOOD)
+			this.distances = new int[B];
+		if(capacityType == POWER_OF_TWO_CAPACITY)
+			this.mask = B - 1;
+		else
+			this.R = getPrevPrimeNumber(B);
 	}
 	
 	/**
+	 * Associates the value to the key, replacing the previous value if the key
+	 * was already in the map
 	 * 
-	 * @param element
+	 * @param key
+	 * @param value
+	 * @return previous value of the key, null if it was not in the map
 	 */
-	public void put(K key, V value) {
-		int currentAttempt = 0;
-		int f = f(key, currentAttempt);
-		// Change the value of f until we find a free node (NOT valid one)
-		while(associativeArray.get(f).isValid()) {
-			currentAttempt++;
-			f = f(key, currentAttempt);
+	public V put(K key, V value) {
+		int hash = hashOf(key);
+		int f = probe(key, hash, HashTableMetrics.ADD);
+		if(f >= 0) {
+			V previous = valueAt(f);
+			values[f] = value;
+			return previous;
 		}
-		associativeArray.set(f, new HashMapNode<K, V>(key, value));
-		validHashNodes++;
-		
-		// Dynamic resize if LF > maxLF
-		if(getLF() > maxLF) {
-			int newSize = getNextPrimeNumber( B * 2 );
+		insert(-f - 1, key, value, hash);
+		return null;
+	}
+	
+	/**
+	 * Copies every entry of the map, replacing the values of the keys already
+	 * present. The table is resized once for all of them beforehand, so no entry
+	 * triggers another resize.
+	 * 
+	 * @param map whose entries are copied
+	 */
+	public void putAll(Map<? extends K, ? extends V> map) {
+		ensureCapacity(validHashNodes + map.size());
+		for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+	
+	/**
+	 * Grows the table, if needed, so the given number of keys fit in it under the
+	 * maximum load factor without any other resize
+	 * 
+	 * @param expectedKeys number of keys the map will store
+	 */
+	public void ensureCapacity(int expectedKeys) {
+		int newSize = sizeFor(expectedKeys);
+		if(newSize > B)
 			dynamicResize(newSize);
+	}
+	
+	/**
+	 * Associates the value to the key only if the key is not in the map
+	 * 
+	 * @param key
+	 * @param value
+	 * @return current value of the key, null if it was not in the map
+	 */
+	public V putIfAbsent(K key, V value) {
+		int hash = hashOf(key);
+		int f = probe(key, hash, HashTableMetrics.ADD);
+		if(f >= 0)
+			return valueAt(f);
+		insert(-f - 1, key, value, hash);
+		return null;
+	}
+	
+	/**
+	 * Returns the value of the key, computing and adding it to the map if the key
+	 * is not present. Nothing is added if the function returns null
+	 * 
+	 * @param key
+	 * @param mappingFunction computing the value from the key
+	 * @return current value of the key
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		int hash = hashOf(key);
+		int f = probe(key, hash, HashTableMetrics.ADD);
+		if(f >= 0)
+			return valueAt(f);
+		
+		V value = mappingFunction.apply(key);
+		if(value != null)
+			insert(-f - 1, key, value, hash);
+		return value;
+	}
+	
+	/**
+	 * Associates the value to the key if it is not present. Otherwise the current
+	 * value is replaced by the result of the function over the current value and
+	 * the given one, removing the key if the result is null
+	 * 
+	 * @param key
+	 * @param value to associate or combine with the current one
+	 * @param remappingFunction combining the current value and the given one
+	 * @return new value of the key, null if it was removed
+	 */
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if(value == null)
+			throw new IllegalArgumentException("Null values can not be merged");
+		
+		int hash = hashOf(key);
+		int f = probe(key, hash, HashTableMetrics.ADD);
+		if(f < 0) {
+			insert(-f - 1, key, value, hash);
+			return value;
 		}
+		
+		V newValue = remappingFunction.apply(valueAt(f), value);
+		if(newValue == null)
+			delete(f);
+		else
+			values[f] = newValue;
+		return newValue;
 	}
 	
 	/**
+	 * Returns the value associated to the key
 	 * 
-	 * @param element
-	 * @return
+	 * @param key
+	 * @return value of the key, null if it is not in the map
+	 */
+	public V get(K key) {
+		int f = probe(key, hashOf(key), HashTableMetrics.SEARCH);
+		return f >= 0 ? valueAt(f) : null;
+	}
+	
+	/**
+	 * Returns the value associated to the key, or the default value if the key is
+	 * not in the map
+	 * 
+	 * @param key
+	 * @param defaultValue
+	 * @return value of the key or defaultValue
+	 */
+	public V getOrDefault(K key, V defaultValue) {
+		int f = probe(key, hashOf(key), HashTableMetrics.SEARCH);
+		return f >= 0 ? valueAt(f) : defaultValue;
+	}
+	
+	/**
+	 * 
+	 * @param key
+	 * @return true if the key is in the map
 	 */
 	public boolean search(K key) {
-		boolean elementPresent = false;
-		int currentAttempt = 0;
-		int f = f(key, currentAttempt);
+		return probe(key, hashOf(key), HashTableMetrics.SEARCH) >= 0;
+	}
+	
+	/**
+	 * Removes the key and its value from the map
+	 * 
+	 * @param key
+	 * @return removed value, null if the key was not in the map
+	 */
+	public V remove(K key) {
+		int f = probe(key, hashOf(key), HashTableMetrics.REMOVE);
+		if(f < 0)
+			return null;
 		
-		while(!associativeArray.get(f).isEmpty() && !elementPresent) {
-			// Only VALID nodes are taken into account
-			if(associativeArray.get(f).isValid()) {
-				if(associativeArray.get(f).getKey().equals(key))
-					elementPresent = true;	
+		V previous = valueAt(f);
+		delete(f);
+		return previous;
+	}
+	
+	/**
+	 * Returns the number of keys in the map
+	 * 
+	 * @return number of valid nodes
+	 */
+	public int size() {
+		return validHashNodes;
+	}
+	
+	/**
+	 * Returns the entries of the map, in the order of the associative array
+	 * 
+	 * @return Iterable over key-value entries
+	 */
+	public Iterable<Map.Entry<K, V>> entries() {
+		return () -> new NodeIterator<Map.Entry<K, V>>() {
+			@Override
+			Map.Entry<K, V> get(int f) {
+				return new AbstractMap.SimpleImmutableEntry<K, V>(keyAt(f), valueAt(f));
 			}
-			currentAttempt++;
-			f = f(key, currentAttempt);
+		};
+	}
+	
+	/**
+	 * Returns the keys of the map, in the order of the associative array
+	 * 
+	 * @return Iterable over the keys
+	 */
+	public Iterable<K> keys() {
+		return () -> new NodeIterator<K>() {
+			@Override
+			K get(int f) {
+				return keyAt(f);
+			}
+		};
+	}
+	
+	/**
+	 * Returns the values of the map, in the order of the associative array
+	 * 
+	 * @return Iterable over the values
+	 */
+	public Iterable<V> values() {
+		return () -> new NodeIterator<V>() {
+			@Override
+			V get(int f) {
+				return valueAt(f);
+			}
+		};
+	}
+	
+	/**
+	 * Iterator over the VALID nodes of the associative array
+	 *
+	 * @param <E> type returned for every node
+	 */
+	private abstract class NodeIterator<E> implements Iterator<E> {
+		private int next = nextValid(0);
+		
+		abstract E get(int f);
+		
+		@Override
+		public boolean hasNext() {
+			return next < B;
 		}
 		
-		return elementPresent;
+		@Override
+		public E next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+			E element = get(next);
+			next = nextValid(next + 1);
+			return element;
+		}
+		
+		private int nextValid(int f) {
+			while(f < B && status[f] != VALID) {
+				f++;
+			}
+			return f;
+		}
 	}
 	
 	/**
+	 * Looks for the key with the probe of the redispersion type, recording its
+	 * length in the metrics
 	 * 
-	 * @param element
+	 * @param key to be searched
+	 * @param hash of the key
+	 * @param operation ADD, SEARCH or REMOVE, as recorded in the metrics
+	 * @return position of the key if it is present. Otherwise -(position + 1) of
+	 *         the node where it can be added
+	 */
+	private int probe(K key, int hash, int operation) {
+		long collisions = numberOfCollisions;
+		int f = redispersionType == ROBIN_HOOD ? probeRobinHood(key, hash) : probeOpenAddressing(key, hash);
+		metrics.recordProbe(operation, (int) (numberOfCollisions - collisions));
+		return f;
+	}
+	
+	/**
+	 * Adds the nodes moved by an operation after its probe to the collisions and
+	 * the metrics
+	 * 
+	 * @param operation ADD or REMOVE, as recorded in the metrics
+	 * @param moved number of nodes
 	 */
-	public void remove(K key) {
+	private void recordMoves(int operation, int moved) {
+		numberOfCollisions += moved;
+		metrics.recordMoves(operation, moved);
+	}
+	
+	/**
+	 * Follows the sequence of f values of the key once, looking for it and for the
+	 * first node where it could be added: the first DELETED one, or the EMPTY one
+	 * ending the sequence.
+	 * 
+	 * @param key to be searched
+	 * @param hash of the key
+	 * @return position of the key if it is present. Otherwise -(position + 1) of
+	 *         the node where it can be added
+	 */
+	private int probeOpenAddressing(K key, int hash) {
+		int freeNode = NOT_ASSIGNED;
 		int currentAttempt = 0;
-		int f = f(key, currentAttempt);
+		int f = fHash(hash, currentAttempt);
 		
-		while(associativeArray.get(f).isValid()) {
-			if(associativeArray.get(f).getKey().equals(key)) {
-				associativeArray.get(f).setDeleted();
-				validHashNodes--;
+		while(status[f] != EMPTY) {
+			// Once attempts exceed B, the search is iterating over all same f values
+			if(currentAttempt > B)
+				break;
+			
+			// Only VALID nodes are taken into account, equals only called on same hashes
+			if(status[f] == VALID) {
+				if(hashes[f] == hash && keys[f].equals(key))
+					return f;
+			} else if(freeNode == NOT_ASSIGNED) {
+				freeNode = f;
 			}
 			currentAttempt++;
-			f = f(key, currentAttempt);
+			numberOfCollisions++;
+			f = fHash(hash, currentAttempt);
 		}
 		
+		if(freeNode == NOT_ASSIGNED) {
+			// Sequence cut before an EMPTY node, change the value of f until a free one
+			while(status[f] == VALID) {
+				currentAttempt++;
+				numberOfCollisions++;
+				f = fHash(hash, currentAttempt);
+			}
+			freeNode = f;
+		}
+		return -freeNode - 1;
+	}
+	
+	/**
+	 * Stores a new entry in a free node, resizing the table if LF > maxLF
+	 */
+	private void insert(int f, K key, V value, int hash) {
+		if(redispersionType == ROBIN_HOOD) {
+			recordMoves(HashTableMetrics.ADD, placeRobinHood(f, key, value, hash, distance(f, fHash(hash, 0))));
+		} else {
+			if(status[f] == DELETED)
+				deletedHashNodes--;
+			keys[f] = key;
+			values[f] = value;
+			hashes[f] = hash;
+			status[f] = VALID;
+		}
+		validHashNodes++;
+		
+		// Dynamic resize if LF > maxLF
+		if(getLF() > maxLF) {
+			int newSize = grownSize(B);
+			dynamicResize(newSize);
+		} else if((double) (validHashNodes + deletedHashNodes) / B > maxLF) {
+			// Too many DELETED nodes, rebuilt without them. Grows if it would be soon filled again
+			int newSize = getLF() > maxLF / 2 ? grownSize(B) : B;
+			dynamicResize(newSize);
+		}
+	}
+	
+	/**
+	 * Removes the entry of a valid node, resizing the table if LF < minLF
+	 */
+	private void delete(int f) {
+		if(redispersionType == ROBIN_HOOD) {
+			recordMoves(HashTableMetrics.REMOVE, shiftBackRobinHood(f));
+		} else if(backwardShift) {
+			recordMoves(HashTableMetrics.REMOVE, shiftBackward(f));
+		} else {
+			status[f] = DELETED;
+			values[f] = null;
+			deletedHashNodes++;
+		}
+		validHashNodes--;
+		
 		if(minLF != NOT_ASSIGNED && getLF() < minLF) {
-			int newSize = getPrevPrimeNumber( B / 2);
+			int newSize = shrunkSize(B);
 			dynamicResize(newSize); 
 		}
 	}
 	
+	/**
+	 * Fills the node of a removed key moving back the next keys of the cluster
+	 * whose first f value is not between the free node and their node, until an
+	 * EMPTY node is reached
+	 * 
+	 * @param free position of the removed key
+	 * @return number of moved entries
+	 */
+	private int shiftBackward(int free) {
+		int f = next(free);
+		int moved = 0;
+		for(int checked = 1; checked < B && status[f] != EMPTY; checked++) {
+			int home = fHash(hashes[f], 0);
+			boolean homeAfterFree = free <= f ? free < home && home <= f : free < home || home <= f;
+			if(!homeAfterFree) {
+				keys[free] = keys[f];
+				values[free] = values[f];
+				hashes[free] = hashes[f];
+				status[free] = VALID;
+				free = f;
+				moved++;
+			}
+			f = next(f);
+		}
+		keys[free] = null;
+		values[free] = null;
+		status[free] = EMPTY;
+		return moved;
+	}
+	
+	/**
+	 * ROBIN_HOOD search of the key. Keys of a cluster are sorted by their distance
+	 * to their first node, so the search stops as soon as a node holds a key
+	 * closer to its first node than the searched one would be.
+	 * 
+	 * @param key to be searched
+	 * @param hash of the key
+	 * @return position of the key if it is present. Otherwise -(position + 1) of
+	 *         the node where it must be placed
+	 */
+	private int probeRobinHood(K key, int hash) {
+		int f = fHash(hash, 0);
+		for(int distance = 0; status[f] == VALID && distances[f] >= distance; distance++) {
+			if(hashes[f] == hash && keys[f].equals(key))
+				return f;
+			numberOfCollisions++;
+			f = next(f);
+		}
+		return -f - 1;
+	}
+	
+	/**
+	 * Places an entry with ROBIN_HOOD: every entry found closer to its first node
+	 * than the one being placed gives its node up and is placed further on.
+	 * 
+	 * @param f node where the entry is placed
+	 * @param key
+	 * @param value
+	 * @param hash of the key
+	 * @param distance from the first node of the key to f
+	 * @return number of nodes passed until an EMPTY one
+	 */
+	private int placeRobinHood(int f, Object key, Object value, int hash, int distance) {
+		int passed = 0;
+		while(status[f] == VALID) {
+			if(distances[f] < distance) {
+				Object displacedKey = keys[f];
+				Object displacedValue = values[f];
+				int displacedHash = hashes[f];
+				int displacedDistance = distances[f];
+				keys[f] = key;
+				values[f] = value;
+				hashes[f] = hash;
+				distances[f] = distance;
+				key = displacedKey;
+				value = displacedValue;
+				hash = displacedHash;
+				distance = displacedDistance;
+			}
+			f = next(f);
+			distance++;
+			passed++;
+		}
+		keys[f] = key;
+		values[f] = value;
+		hashes[f] = hash;
+		distances[f] = distance;
+		status[f] = VALID;
+		return passed;
+	}
+	
+	/**
+	 * Fills the node of a removed key with ROBIN_HOOD, moving every next entry of
+	 * the cluster one node back until an EMPTY node or a key already in its first
+	 * node
+	 * 
+	 * @param free position of the removed key
+	 * @return number of moved entries
+	 */
+	private int shiftBackRobinHood(int free) {
+		int f = next(free);
+		int moved = 0;
+		while(status[f] == VALID && distances[f] > 0) {
+			keys[free] = keys[f];
+			values[free] = values[f];
+			hashes[free] = hashes[f];
+			distances[free] = distances[f] - 1;
+			free = f;
+			moved++;
+			f = next(f);
+		}
+		keys[free] = null;
+		values[free] = null;
+		status[free] = EMPTY;
+		return moved;
+	}
+	
+	/**
+	 * Enables or disables backward shift deletion, only available with
+	 * LINEAR_PROBING. Once enabled removals leave no DELETED nodes, and the ones
+	 * already in the table are cleaned. ROBIN_HOOD maps always shift back.
+	 * 
+	 * @param backwardShift true to enable it
+	 */
+	public void setBackwardShiftDeletion(boolean backwardShift) {
+		if(backwardShift && redispersionType != LINEAR_PROBING)
+			throw new IllegalArgumentException("Backward shift deletion needs LINEAR_PROBING");
+		
+		this.backwardShift = backwardShift;
+		if(backwardShift && deletedHashNodes > 0)
+			dynamicResize(B);
+	}
+	
+	private int hashOf(K key) {
+		if(key == null)
+			throw new IllegalArgumentException("Null keys are not allowed");
+		return key.hashCode();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private K keyAt(int f) {
+		return (K) keys[f];
+	}
+	
+	@SuppressWarnings("unchecked")
+	private V valueAt(int f) {
+		return (V) values[f];
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -122,39 +639,205 @@ public class HashMap<K, V> {
 	 * @return
 	 */
 	protected int f(K element, final int attempt) {
+		return fHash(element.hashCode(), attempt);
+	}
+	
+	/**
+	 * 
+	 * @param hashCode of the key
+	 * @param attempt
+	 * @return
+	 */
+	private int fHash(int hashCode, final int attempt) {
+		if(capacityType == POWER_OF_TWO_CAPACITY)
+			return fMask(hashCode, attempt);
+		
+		// Absolute value taken after the modulo, as Math.abs(Integer.MIN_VALUE) is negative
 		int newHashCode = 0;
 		
-		if(redispersionType == LINEAR_PROBING)
-			newHashCode = Math.abs(element.hashCode() + attempt) % B;
+		if(redispersionType == LINEAR_PROBING || redispersionType == ROBIN_HOOD)
+			newHashCode = (Math.abs(hashCode % B) + attempt) % B; // consecutive nodes
 		else if(redispersionType == QUADRATIC_PROBING)
-			newHashCode = Math.abs( element.hashCode() + ( attempt * attempt ) ) % B;
+			newHashCode = Math.abs( ( hashCode + ( attempt * attempt ) ) % B );
 		else if(redispersionType == DOUBLE_HASHING)
-			newHashCode = Math.abs( element.hashCode() + ( attempt * (R - element.hashCode() % R) ) ) % B;
+			newHashCode = Math.abs( ( hashCode + ( attempt * (R - Math.abs(hashCode % R)) ) ) % B );
 		
 		return newHashCode;
 	}
+	
+	/**
+	 * f value with POWER_OF_TWO_CAPACITY: quadratic probing follows triangular
+	 * numbers and double hashing an odd step, as both visit every node of a power
+	 * of two table
+	 * 
+	 * @param hashCode of the key
+	 * @param attempt
+	 * @return f value
+	 */
+	private int fMask(int hashCode, final int attempt) {
+		int spread = spread(hashCode);
+		int home = spread & mask;
+		
+		if(redispersionType == QUADRATIC_PROBING)
+			return (home + ((attempt * (attempt + 1)) >>> 1)) & mask;
+		if(redispersionType == DOUBLE_HASHING)
+			return (home + attempt * ((spread >>> 16) | 1)) & mask;
+		return (home + attempt) & mask;
+	}
+	
+	/**
+	 * Returns the node after f, going back to the first one after the last one.
+	 * Robin Hood and the backward shift step with it instead of a modulo.
+	 * 
+	 * @param f int position of a node
+	 * @return int position of the next node
+	 */
+	private int next(int f) {
+		if(capacityType == POWER_OF_TWO_CAPACITY)
+			return (f + 1) & mask;
+		return f + 1 == B ? 0 : f + 1;
+	}
+	
+	/**
+	 * Returns the number of nodes from the first node of an element to its node,
+	 * going round the end of the table
+	 * 
+	 * @param f    int position of the node of the element
+	 * @param home int position of its first node
+	 * @return int distance between both nodes
+	 */
+	private int distance(int f, int home) {
+		if(capacityType == POWER_OF_TWO_CAPACITY)
+			return (f - home) & mask;
+		return f >= home ? f - home : f - home + B;
+	}
+	
+	/**
+	 * Mixes the bits of a hash code with the finalizer of MurmurHash3, so similar
+	 * hash codes get different low bits
+	 * 
+	 * @param hashCode to spread
+	 * @return spread hash code
+	 */
+	private static int spread(int hashCode) {
+		hashCode ^= hashCode >>> 16;
+		hashCode *= 0x85ebca6b;
+		hashCode ^= hashCode >>> 13;
+		hashCode *= 0xc2b2ae35;
+		hashCode ^= hashCode >>> 16;
+		return hashCode;
+	}
+	
+	private int grownSize(int size) {
+		return capacityType == POWER_OF_TWO_CAPACITY ? size * 2 : getNextPrimeNumber( size * 2 );
+	}
+	
+	private int shrunkSize(int size) {
+		return capacityType == POWER_OF_TWO_CAPACITY ? Math.max(size / 2, 1) : getPrevPrimeNumber( size / 2 );
+	}
+	
+	public static int nextPowerOfTwo(int number) {
+		return number <= 1 ? 1 : Integer.highestOneBit(number - 1) << 1;
+	}
 
 	/**
+	 * Changes the size of the table, also used with the same size to clean the
+	 * DELETED nodes. It grows until the valid nodes fit under the maximum load
+	 * factor so the table is only rebuilt once. Entries are placed straight in the
+	 * new arrays with their cached hash codes
 	 * 
 	 * @param newSize
 	 */
 	private void dynamicResize(int newSize) {
-		// Keep an instance of old table for passing elements to new table
-		List<HashMapNode<K, V>> oldTable = associativeArray;
-		// Assign all new variables for the table (associativeArray, B, recompute R and current valid hash nodes)
-		this.B = newSize;
-		this.R = getPrevPrimeNumber(B);
-		this.associativeArray = new ArrayList<HashMapNode<K, V>>();
-		for(int i = 0; i < B; i++) {
-			associativeArray.add(new HashMapNode<K, V>());
+		long start = System.nanoTime();
+		while((double) validHashNodes / newSize > maxLF) {
+			newSize = grownSize(newSize);
 		}
-		this.validHashNodes = 0;
-		// Save the relevant elements from old table to new one
-		for(int i = 0; i < oldTable.size(); i++) {
-			if(oldTable.get(i).isValid()) {
-				put(oldTable.get(i).getKey(), oldTable.get(i).getValue());
-			}
+		
+		// Keep the old arrays for passing entries to the new ones
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		byte[] oldStatus = status;
+		// Assign all new variables for the table (arrays, B and recompute R)
+		allocate(newSize);
+		// Save the relevant entries from old table to new one
+		for(int i = 0; i < oldStatus.length; i++) {
+			if(oldStatus[i] == VALID)
+				place(oldKeys[i], oldValues[i], oldHashes[i]);
 		}
+		metrics.recordResize(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Places an entry whose key is known not to be in the table, which has no
+	 * DELETED nodes, without searching it. The number of valid nodes is not updated
+	 * 
+	 * @param key
+	 * @param value
+	 * @param hash of the key
+	 */
+	private void place(Object key, Object value, int hash) {
+		if(redispersionType == ROBIN_HOOD) {
+			placeRobinHood(fHash(hash, 0), key, value, hash, 0);
+			return;
+		}
+		int currentAttempt = 0;
+		int f = fHash(hash, currentAttempt);
+		while(status[f] != EMPTY) {
+			currentAttempt++;
+			f = fHash(hash, currentAttempt);
+		}
+		keys[f] = key;
+		values[f] = value;
+		hashes[f] = hash;
+		status[f] = VALID;
+	}
+	
+	/**
+	 * Returns the size of the table needed to store a number of keys under the
+	 * maximum load factor
+	 * 
+	 * @param numberOfKeys to be stored
+	 * @return B for the capacity type of the map
+	 */
+	private int sizeFor(int numberOfKeys) {
+		int minimum = Math.max((int) Math.ceil(numberOfKeys / maxLF), 2);
+		if(capacityType == POWER_OF_TWO_CAPACITY)
+			return nextPowerOfTwo(minimum);
+		return isPrime(minimum) ? minimum : getNextPrimeNumber(minimum);
+	}
+	
+	/**
+	 * Returns the number of collisions that have happened in all the operations
+	 * over the map
+	 * 
+	 * @return number of collisions
+	 */
+	public long getNumberOfCollision() {
+		return numberOfCollisions;
+	}
+	
+	/**
+	 * Enables or disables the metrics of the map. Enabling them starts new counters
+	 * 
+	 * @param enabled true to record the metrics
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		if(!enabled)
+			metrics = HashTableMetrics.NO_OP;
+		else if(!metrics.isEnabled())
+			metrics = new HashTableMetrics();
+	}
+	
+	/**
+	 * Returns the metrics of the map with its current load recorded
+	 * 
+	 * @return metrics of the map, HashTableMetrics.NO_OP if they are not enabled
+	 */
+	public HashTableMetrics getMetrics() {
+		metrics.recordLoad(validHashNodes, deletedHashNodes, B);
+		return metrics;
 	}
 	
 	/* PRIME NUMBERS METHODS */
@@ -166,7 +849,8 @@ public class HashMap<K, V> {
 		if(number == 1)
 			return true;
 		
-        for (int i = 2; i < number; i++)
+        // A divisor greater than the square root has its pair below it
+        for (int i = 2; i <= number / i; i++)
             if (number % i == 0)
                 return false;
   
@@ -210,13 +894,77 @@ public class HashMap<K, V> {
 	
 	@Override
 	public String toString() {
-		String str = "";
+		StringBuilder str = new StringBuilder();
 		for(int i = 0; i < B; i++) {
-			str += String.format("[%s] (%s) = %s : %s - ", i, 
-					associativeArray.get(i).getStatus(), 
-					associativeArray.get(i).getKey(),
-					associativeArray.get(i).getValue());
+			str.append(String.format("[%s] (%s) = %s : %s - ", i, status[i], keys[i], values[i]));
 		}
-		return str;
+		return str.toString();
 	}	
+	
+	/**
+	 * Builder of maps sized for the number of keys they are going to store, so
+	 * filling them does not resize them. By default it builds LINEAR_PROBING maps
+	 * with PRIME_CAPACITY, maxLF 0.5 and no minLF.
+	 */
+	public static class Builder<K, V> {
+		
+		private int expectedSize = 0;
+		private int redispersionType = LINEAR_PROBING;
+		private double maxLF = 0.5;
+		private double minLF = NOT_ASSIGNED;
+		private int capacityType = PRIME_CAPACITY;
+		
+		public Builder<K, V> expectedSize(int expectedSize) {
+			if(expectedSize < 0)
+				throw new IllegalArgumentException("Expected size must be equal/greater zero");
+			this.expectedSize = expectedSize;
+			return this;
+		}
+		
+		public Builder<K, V> redispersionType(int redispersionType) {
+			this.redispersionType = redispersionType;
+			return this;
+		}
+		
+		public Builder<K, V> maxLF(double maxLF) {
+			if(maxLF <= 0)
+				throw new IllegalArgumentException("Maximum load factor must be greater than zero");
+			this.maxLF = maxLF;
+			return this;
+		}
+		
+		public Builder<K, V> minLF(double minLF) {
+			this.minLF = minLF;
+			return this;
+		}
+		
+		public Builder<K, V> capacityType(int capacityType) {
+			this.capacityType = capacityType;
+			return this;
+		}
+		
+		/**
+		 * Returns an empty map with room for the expected number of keys
+		 * 
+		 * @return new map
+		 */
+		public HashMap<K, V> build() {
+			HashMap<K, V> map = new HashMap<K, V>(2, redispersionType, maxLF, minLF, capacityType);
+			map.ensureCapacity(expectedSize);
+			return map;
+		}
+		
+		/**
+		 * Returns a map with the entries of the given one, sized for them or the
+		 * expected number of keys, whichever is greater
+		 * 
+		 * @param entries to copy
+		 * @return new map
+		 */
+		public HashMap<K, V> build(Map<? extends K, ? extends V> entries) {
+			HashMap<K, V> map = build();
+			map.putAll(entries);
+			return map;
+		}
+	}
 }
@@ -0,0 +1,208 @@
+package hash.hashTable;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Hash table that can be used by several threads at the same time. Elements are
+ * split among segments by the high bits of their spread hash code. Every segment
+ * is a HashTable with POWER_OF_TWO_CAPACITY guarded by its own lock, so writers
+ * of different segments do not wait for each other and every segment is resized
+ * on its own, without stopping the rest of the table.
+ *
+ * Searches do not take any lock while no writer modifies their segment: they
+ * read it optimistically, validating its lock before comparing any element, and
+ * only repeat the search under the read lock if a writer modified it meanwhile.
+ * Every segment resizes on its own, holding its write lock.
+ */
+public class ConcurrentHashTable<T> {
+
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private final HashTable<T>[] segments;
+	private final StampedLock[] locks;
+	// Number of bits the spread hash code is shifted to take its segment
+	private final int segmentShift;
+
+	// Stores the number of collisions of all the segments for: add, remove and
+	// search methods. A LongAdder does not make threads contend for one counter
+	private final LongAdder numberOfCollisions = new LongAdder();
+
+	public ConcurrentHashTable(int B, int redispersionType, double maxLF) {
+		this(B, redispersionType, maxLF, 0, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Constructor of the table
+	 *
+	 * @param B                initial size of the whole table
+	 * @param redispersionType collision strategy of the segments
+	 * @param maxLF            load factor over which a segment grows
+	 * @param minLF            load factor under which a segment shrinks (0 to
+	 *                         never shrink)
+	 * @param concurrencyLevel expected number of threads modifying the table,
+	 *                         rounded up to a power of two segments
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public ConcurrentHashTable(int B, int redispersionType, double maxLF, double minLF, int concurrencyLevel) {
+		if (concurrencyLevel < 1)
+			throw new IllegalArgumentException("Concurrency level must be greater than zero");
+
+		int numberOfSegments = HashTable.nextPowerOfTwo(concurrencyLevel);
+		this.segments = new HashTable[numberOfSegments];
+		this.locks = new StampedLock[numberOfSegments];
+		this.segmentShift = 32 - Integer.numberOfTrailingZeros(numberOfSegments);
+		int segmentSize = Math.max(B / numberOfSegments, 2);
+		for (int i = 0; i < numberOfSegments; i++) {
+			segments[i] = new HashTable<T>(segmentSize, redispersionType, maxLF, minLF,
+					HashTable.POWER_OF_TWO_CAPACITY);
+			locks[i] = new StampedLock();
+		}
+	}
+
+	/**
+	 * Returns the segment of a hash code. Its high bits are used, as the low ones
+	 * choose the node inside the segment
+	 *
+	 * @param hash int hash code of the element
+	 * @return position of its segment
+	 */
+	private int segmentFor(int hash) {
+		// Shifting an int 32 bits leaves it unchanged, a single segment is checked
+		return segments.length == 1 ? 0 : HashTable.spread(hash) >>> segmentShift;
+	}
+
+	/**
+	 * Adds the element into the table
+	 *
+	 * @param element
+	 * @throws IllegalArgumentException if the element is already contained
+	 */
+	public void add(T element) {
+		if (!addIfAbsent(element))
+			throw new IllegalArgumentException("Element already contained in the hash table");
+	}
+
+	/**
+	 * Adds the element into the table if it is not already contained, holding the
+	 * write lock of its segment
+	 *
+	 * @param element
+	 * @return true if the element was added. False if it was already contained
+	 */
+	public boolean addIfAbsent(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Null elements are not allowed");
+
+		int i = segmentFor(element.hashCode());
+		long stamp = locks[i].writeLock();
+		try {
+			long collisions = segments[i].getNumberOfCollision();
+			boolean added = segments[i].addIfAbsent(element);
+			numberOfCollisions.add(segments[i].getNumberOfCollision() - collisions);
+			return added;
+		} finally {
+			locks[i].unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Searches the element without locking its segment. If a writer modified the
+	 * segment during the search, it is repeated under the read lock.
+	 *
+	 * @param element to be searched
+	 * @return true if the element is contained. False otherwise
+	 */
+	public boolean search(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Search of null elements is not allowed");
+
+		int hash = element.hashCode();
+		int i = segmentFor(hash);
+		StampedLock lock = locks[i];
+		long stamp = lock.tryOptimisticRead();
+		int result = stamp == 0 ? HashTable.RETRY : segments[i].lookup(element, hash, lock, stamp);
+		if (result == HashTable.RETRY) {
+			stamp = lock.readLock();
+			try {
+				result = segments[i].lookup(element, hash);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		numberOfCollisions.add(result >= 0 ? result : -result - 1);
+		return result >= 0;
+	}
+
+	/**
+	 * Removes the element from the table
+	 *
+	 * @param element to be removed
+	 * @throws IllegalArgumentException if the element is not contained
+	 */
+	public void remove(T element) {
+		if (!removeIfPresent(element))
+			throw new IllegalArgumentException("Element not contained in the hash table");
+	}
+
+	/**
+	 * Removes the element from the table if it is contained, holding the write
+	 * lock of its segment
+	 *
+	 * @param element to be removed
+	 * @return true if the element was removed. False if it was not contained
+	 */
+	public boolean removeIfPresent(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Null elements are not allowed");
+
+		int i = segmentFor(element.hashCode());
+		long stamp = locks[i].writeLock();
+		try {
+			long collisions = segments[i].getNumberOfCollision();
+			boolean removed = segments[i].removeIfPresent(element);
+			numberOfCollisions.add(segments[i].getNumberOfCollision() - collisions);
+			return removed;
+		} finally {
+			locks[i].unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the table. Segments are counted one after
+	 * another, so concurrent modifications may be partially counted.
+	 *
+	 * @return number of elements
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < segments.length; i++) {
+			long stamp = locks[i].readLock();
+			try {
+				size += segments[i].size();
+			} finally {
+				locks[i].unlockRead(stamp);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of segments the table is split into
+	 *
+	 * @return number of segments
+	 */
+	public int getNumberOfSegments() {
+		return segments.length;
+	}
+
+	/**
+	 * Returns the number of collision that has happened in all the segments during
+	 * an add, remove or search operation
+	 *
+	 * @return number of collision
+	 */
+	public long getNumberOfCollision() {
+		return numberOfCollisions.sum();
+	}
+}
@@ -1,11 +1,23 @@
 package hash.hashTable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
 
 public class HashTable<T> {
 
-	private List<HashNode<T>> associativeArray;
+	/* STATUS of every node in the associative array */
+	private static final byte EMPTY = 0;
+	private static final byte VALID = 1;
+	private static final byte DELETED = 2;
+
+	// Associative array kept as parallel arrays: element, hash code and status of
+	// every node. Hash codes are cached so resizing does not call hashCode() again
+	private Object[] elements;
+	private int[] hashes;
+	private byte[] status;
+	// ROBIN_HOOD only: number of nodes between the first f value of every element
+	// and its node
+	private int[] distances;
 	// Represents the maximum size of the associative array
 	private int B;
 	private int redispersionType;
@@ -17,33 +29,90 @@ public class HashTable<T> {
 	// storing an element)
 	private int validHashNodes;
 
+	// Stores the number of DELETED nodes. They are counted with the valid ones to
+	// decide when the table is rebuilt, as searches go on through them
+	private int deletedHashNodes;
+
+	// LINEAR_PROBING only: removed elements are filled moving back the next ones in
+	// their sequence, so no DELETED nodes are left
+	private boolean backwardShift = false;
+
 	// Stores the number of collision in the table for: add, remove and search
 	// methods
-	private int numberOfCollisions = 0;
+	private long numberOfCollisions = 0;
+
+	// Per operation counters and probe lengths, not recorded unless enabled
+	private HashTableMetrics metrics = HashTableMetrics.NO_OP;
 
 	/* COLLISION STRATEGIES (REDISPERSION TYPE) in our hash table */
 	public static final int LINEAR_PROBING = 0;
 	public static final int QUADRATIC_PROBING = 1;
 	public static final int DOUBLE_HASHING = 2;
+	public static final int ROBIN_HOOD = 3;
+
+	/* CAPACITY TYPES of the associative array */
+	public static final int PRIME_CAPACITY = 0;
+	public static final int POWER_OF_TWO_CAPACITY = 1; // f values taken with a mask instead of modulo
 
 	private static final int NOT_ASSIGNED = -1;
 
+	// Result of an optimistic lookup interrupted by a writer
+	static final int RETRY = Integer.MIN_VALUE;
+
+	private int capacityType;
+	private int mask; // B - 1 with POWER_OF_TWO_CAPACITY
+
 	public HashTable(int B, int redispersionType, double maxLF) {
-		this.associativeArray = new ArrayList<HashNode<T>>();
-		this.B = B;
-		for (int i = 0; i < B; i++) {
-			associativeArray.add(new HashNode<T>());
-		}
+		this(B, redispersionType, maxLF, NOT_ASSIGNED, PRIME_CAPACITY);
+	}
+
+	public HashTable(int B, int redispersionType, double maxLF, double minLF) {
+		this(B, redispersionType, maxLF, minLF, PRIME_CAPACITY);
+	}
+
+	/**
+	 * Constructor choosing the capacity type. With POWER_OF_TWO_CAPACITY, B is
+	 * rounded up to a power of two and f values are computed with a mask over a
+	 * spread of the hash code, so no modulo nor prime search is needed.
+	 * 
+	 * @param B                int initial size of the table
+	 * @param redispersionType int collision strategy
+	 * @param maxLF            double load factor over which the table grows
+	 * @param minLF            double load factor under which the table shrinks (0
+	 *                         to never shrink)
+	 * @param capacityType     int PRIME_CAPACITY or POWER_OF_TWO_CAPACITY
+	 */
+	public HashTable(int B, int redispersionType, double maxLF, double minLF, int capacityType) {
+		if (capacityType != PRIME_CAPACITY && capacityType != POWER_OF_TWO_CAPACITY)
+			throw new IllegalArgumentException("Unknown capacity type");
+
+		this.capacityType = capacityType;
 		this.redispersionType = redispersionType;
 		this.maxLF = maxLF;
-		this.R = getPrevPrimeNumber(B);
+		this.minLF = minLF;
 		this.validHashNodes = 0;
 		this.numberOfCollisions = 0;
+		allocate(capacityType == POWER_OF_TWO_CAPACITY ? nextPowerOfTwo(B) : B);
 	}
 
-	public HashTable(int B, int redispersionType, double maxLF, double minLF) {
-		this(B, redispersionType, maxLF);
-		this.minLF = minLF;
+	/**
+	 * Assigns the size of the table, creating its empty arrays and computing R or
+	 * the mask
+	 * 
+	 * @param size int new B
+	 */
+	private void allocate(int size) {
+		this.B = size;
+		this.elements = new Object[B];
+		this.hashes = new int[B];
+		this.status = new byte[B];
+		this.deletedHashNodes = 0;
+		if (redispersionType == ROBIN_HOOD)
+			this.distances = new int[B];
+		if (capacityType == POWER_OF_TWO_CAPACITY)
+			this.mask = B - 1;
+		else
+			this.R = getPrevPrimeNumber(B);
 	}
 
 	/**
@@ -54,27 +123,90 @@ public class HashTable<T> {
 	 * @param element
 	 */
 	public void add(T element) {
+		if (!addIfAbsent(element))
+			throw new IllegalArgumentException("Element already contained in the hash table");
+	}
+
+	/**
+	 * Adds the element into the hash table if it is not already contained. The
+	 * element is searched and its free node found in a single probe sequence.
+	 * 
+	 * @param element
+	 * @return true if the element was added. False if it was already contained
+	 */
+	public boolean addIfAbsent(T element) {
 		if (element == null)
 			throw new IllegalArgumentException("Null elements are not allowed");
-		if (search(element))
-			throw new IllegalArgumentException("Element already contained in the hash table");
 
-		int currentAttempt = 0;
-		int f = f(element, currentAttempt);
-		// Change the value of f until we find a free node (NOT valid one)
-		while (associativeArray.get(f).isValid()) {
-			currentAttempt++;
-			numberOfCollisions++;
-			f = f(element, currentAttempt);
+		return insert(element, element.hashCode());
+	}
+
+	/**
+	 * Adds every element of the collection that is not already contained. The
+	 * table is resized once for all of them beforehand, so no element triggers
+	 * another resize.
+	 * 
+	 * @param collection of elements to add
+	 * @return true if any element was added
+	 */
+	public boolean addAll(Collection<? extends T> collection) {
+		ensureCapacity(validHashNodes + collection.size());
+
+		boolean added = false;
+		for (T element : collection) {
+			added |= addIfAbsent(element);
+		}
+		return added;
+	}
+
+	/**
+	 * Grows the table, if needed, so the given number of elements fit in it under
+	 * the maximum load factor without any other resize
+	 * 
+	 * @param expectedElements number of elements the table will store
+	 */
+	public void ensureCapacity(int expectedElements) {
+		int newSize = sizeFor(expectedElements);
+		if (newSize > B)
+			dynamicResize(newSize);
+	}
+
+	/**
+	 * Adds the element with its hash code, after finding it is not contained with
+	 * the same probe sequence
+	 * 
+	 * @param element to add
+	 * @param hash    int hash code of the element
+	 * @return true if the element was added. False if it was already contained
+	 */
+	private boolean insert(T element, int hash) {
+		int f = probe(element, hash, HashTableMetrics.ADD);
+		if (f >= 0)
+			return false;
+
+		f = -f - 1;
+		if (redispersionType == ROBIN_HOOD) {
+			recordMoves(HashTableMetrics.ADD, placeRobinHood(f, element, hash, distance(f, fHash(hash, 0))));
+		} else {
+			if (status[f] == DELETED)
+				deletedHashNodes--;
+			elements[f] = element;
+			hashes[f] = hash;
+			status[f] = VALID;
 		}
-		associativeArray.set(f, new HashNode<T>(element));
 		validHashNodes++;
 
 		// Dynamic resize if LF > maxLF
 		if (getLF() > maxLF) {
-			int newSize = getNextPrimeNumber(B * 2);
+			int newSize = grownSize(B);
+			dynamicResize(newSize);
+		} else if (getOccupiedLF() > maxLF) {
+			// Too many DELETED nodes, rebuilt without them. Grows if it would be
+			// soon filled again
+			int newSize = getLF() > maxLF / 2 ? grownSize(B) : B;
 			dynamicResize(newSize);
 		}
+		return true;
 	}
 
 	/**
@@ -90,26 +222,7 @@ public class HashTable<T> {
 		if (element == null)
 			throw new IllegalArgumentException("Search of null elements is not allowed");
 
-		boolean elementPresent = false;
-		int currentAttempt = 0;
-		int f = f(element, currentAttempt);
-
-		while (!associativeArray.get(f).isEmpty() && !elementPresent) {
-			// Once attempts exceed B, the search is iterating over all same f values
-			if (currentAttempt > B)
-				break;
-
-			// Only VALID nodes are taken into account
-			if (associativeArray.get(f).isValid()) {
-				if (associativeArray.get(f).getElement().equals(element))
-					elementPresent = true;
-			}
-			currentAttempt++;
-			numberOfCollisions++;
-			f = f(element, currentAttempt);
-		}
-
-		return elementPresent;
+		return probe(element, element.hashCode(), HashTableMetrics.SEARCH) >= 0;
 	}
 
 	/**
@@ -120,33 +233,306 @@ public class HashTable<T> {
 	 * @param element to be removed
 	 */
 	public void remove(T element) {
+		if (!removeIfPresent(element))
+			throw new IllegalArgumentException("Element not contained in the hash table");
+	}
+
+	/**
+	 * Removes the element from the table if it is contained, with a single probe
+	 * sequence
+	 * 
+	 * @param element to be removed
+	 * @return true if the element was removed. False if it was not contained
+	 */
+	public boolean removeIfPresent(T element) {
 		if (element == null)
 			throw new IllegalArgumentException("Null elements are not allowed");
-		if (!search(element))
-			throw new IllegalArgumentException("Element not contained in the hash table");
 
+		int f = probe(element, element.hashCode(), HashTableMetrics.REMOVE);
+		if (f < 0)
+			return false;
+
+		if (redispersionType == ROBIN_HOOD) {
+			recordMoves(HashTableMetrics.REMOVE, shiftBackRobinHood(f));
+		} else if (backwardShift) {
+			recordMoves(HashTableMetrics.REMOVE, shiftBackward(f));
+		} else {
+			status[f] = DELETED;
+			deletedHashNodes++;
+		}
+		validHashNodes--;
+
+		if (minLF != NOT_ASSIGNED && getLF() < minLF) {
+			int newSize = shrunkSize(B);
+			dynamicResize(newSize);
+		}
+		return true;
+	}
+
+	/**
+	 * Looks for the element with the probe of the redispersion type, recording its
+	 * length in the metrics
+	 * 
+	 * @param element   to be searched
+	 * @param hash      int hash code of the element
+	 * @param operation ADD, SEARCH or REMOVE, as recorded in the metrics
+	 * @return position of the element if it is present. Otherwise -(position + 1)
+	 *         of the node where it can be added
+	 */
+	private int probe(T element, int hash, int operation) {
+		long collisions = numberOfCollisions;
+		int f = redispersionType == ROBIN_HOOD ? probeRobinHood(element, hash) : probeOpenAddressing(element, hash);
+		metrics.recordProbe(operation, (int) (numberOfCollisions - collisions));
+		return f;
+	}
+
+	/**
+	 * Adds the nodes moved by an operation after its probe to the collisions and
+	 * the metrics
+	 * 
+	 * @param operation ADD or REMOVE, as recorded in the metrics
+	 * @param moved     number of nodes
+	 */
+	private void recordMoves(int operation, int moved) {
+		numberOfCollisions += moved;
+		metrics.recordMoves(operation, moved);
+	}
+
+	/**
+	 * Follows the sequence of f values of the element once, looking for it and for
+	 * the first node where it could be added: the first DELETED one, or the EMPTY
+	 * one ending the sequence.
+	 * 
+	 * @param element to be searched
+	 * @param hash    int hash code of the element
+	 * @return position of the element if it is present. Otherwise -(position + 1)
+	 *         of the node where it can be added
+	 */
+	private int probeOpenAddressing(T element, int hash) {
+		int freeNode = NOT_ASSIGNED;
 		int currentAttempt = 0;
-		int f = f(element, currentAttempt);
+		int f = fHash(hash, currentAttempt);
 
-		while (!associativeArray.get(f).isEmpty()) {
-			// Once attempts exceed B, the remove is iterating over all same f values
+		while (status[f] != EMPTY) {
+			// Once attempts exceed B, the search is iterating over all same f values
 			if (currentAttempt > B)
 				break;
 
-			if (associativeArray.get(f).getElement().equals(element)) {
-				associativeArray.get(f).setDeleted();
-				validHashNodes--;
+			// Only VALID nodes are taken into account, equals only called on same hashes
+			if (status[f] == VALID) {
+				if (hashes[f] == hash && elements[f].equals(element))
+					return f;
+			} else if (freeNode == NOT_ASSIGNED) {
+				freeNode = f;
+			}
+			currentAttempt++;
+			numberOfCollisions++;
+			f = fHash(hash, currentAttempt);
+		}
+
+		if (freeNode == NOT_ASSIGNED) {
+			// Sequence cut before an EMPTY node, change the value of f until a free one
+			while (status[f] == VALID) {
+				currentAttempt++;
+				numberOfCollisions++;
+				f = fHash(hash, currentAttempt);
+			}
+			freeNode = f;
+		}
+		return -freeNode - 1;
+	}
+
+	/**
+	 * Follows the sequence of f values of the element only reading the table, not
+	 * even counting its collisions, so several ConcurrentHashTable searches can
+	 * run at the same time under a read lock.
+	 * 
+	 * @param element to be searched
+	 * @param hash    int hash code of the element
+	 * @return number of collisions until the element was found. If it is not
+	 *         contained, -(collisions + 1)
+	 */
+	int lookup(Object element, int hash) {
+		return lookup(element, hash, null, 0);
+	}
+
+	/**
+	 * Same lookup without holding any lock, for ConcurrentHashTable. The arrays
+	 * and sizes are copied to locals and validated at once, so they belong to the
+	 * same version of the table and every f value is inside the arrays. Nodes read
+	 * afterwards may be changing, so the stamp is validated again before calling
+	 * equals on an element and before deciding it is not contained.
+	 * 
+	 * @param element to be searched
+	 * @param hash    int hash code of the element
+	 * @param lock    guarding the table, null if it is already held
+	 * @param stamp   of the optimistic read of the lock
+	 * @return number of collisions until the element was found. If it is not
+	 *         contained, -(collisions + 1). RETRY if a writer modified the table
+	 */
+	int lookup(Object element, int hash, StampedLock lock, long stamp) {
+		Object[] elements = this.elements;
+		int[] hashes = this.hashes;
+		byte[] status = this.status;
+		int[] distances = this.distances;
+		int tableSize = this.B;
+		int tableMask = this.mask;
+		int tableR = this.R;
+		if (lock != null && !lock.validate(stamp))
+			return RETRY;
+
+		int currentAttempt = 0;
+		int f = fHash(hash, currentAttempt, tableSize, tableMask, tableR);
+		while (currentAttempt <= tableSize && status[f] != EMPTY) {
+			if (redispersionType == ROBIN_HOOD && distances[f] < currentAttempt)
 				break;
+			if (status[f] == VALID && hashes[f] == hash) {
+				Object candidate = elements[f];
+				if (lock != null && !lock.validate(stamp))
+					return RETRY;
+				if (element.equals(candidate))
+					return currentAttempt;
 			}
 			currentAttempt++;
+			f = fHash(hash, currentAttempt, tableSize, tableMask, tableR);
+		}
+		if (lock != null && !lock.validate(stamp))
+			return RETRY;
+		return -currentAttempt - 1;
+	}
+
+	/**
+	 * Fills the node of a removed element moving back the next elements of the
+	 * cluster that are allowed to be there: the ones whose first f value is not
+	 * between the free node and their node. Repeated with the node left free by
+	 * every moved element until an EMPTY node is reached.
+	 * 
+	 * @param free int position of the removed element
+	 * @return number of moved elements
+	 */
+	private int shiftBackward(int free) {
+		int f = next(free);
+		int moved = 0;
+		for (int checked = 1; checked < B && status[f] != EMPTY; checked++) {
+			int home = fHash(hashes[f], 0);
+			boolean homeAfterFree = free <= f ? free < home && home <= f : free < home || home <= f;
+			if (!homeAfterFree) {
+				elements[free] = elements[f];
+				hashes[free] = hashes[f];
+				status[free] = VALID;
+				free = f;
+				moved++;
+			}
+			f = next(f);
+		}
+		elements[free] = null;
+		status[free] = EMPTY;
+		return moved;
+	}
+
+	/**
+	 * ROBIN_HOOD search of the element. Elements of a cluster are sorted by their
+	 * distance to their first node, so the search stops as soon as a node holds
+	 * an element closer to its first node than the searched one would be.
+	 * 
+	 * @param element to be searched
+	 * @param hash    int hash code of the element
+	 * @return position of the element if it is present. Otherwise -(position + 1)
+	 *         of the node where it must be placed
+	 */
+	private int probeRobinHood(T element, int hash) {
+		int f = fHash(hash, 0);
+		for (int distance = 0; status[f] == VALID && distances[f] >= distance; distance++) {
+			if (hashes[f] == hash && elements[f].equals(element))
+				return f;
 			numberOfCollisions++;
-			f = f(element, currentAttempt);
+			f = next(f);
 		}
+		return -f - 1;
+	}
 
-		if (minLF != NOT_ASSIGNED && getLF() < minLF) {
-			int newSize = getPrevPrimeNumber(B / 2);
-			dynamicResize(newSize);
+	/**
+	 * Places an element with ROBIN_HOOD: every element found closer to its first
+	 * node than the one being placed gives its node up and is placed further on.
+	 * 
+	 * @param f        int node where the element is placed
+	 * @param element  to be placed
+	 * @param hash     int hash code of the element
+	 * @param distance int from the first node of the element to f
+	 * @return number of nodes passed until an EMPTY one
+	 */
+	private int placeRobinHood(int f, Object element, int hash, int distance) {
+		int passed = 0;
+		while (status[f] == VALID) {
+			if (distances[f] < distance) {
+				Object displacedElement = elements[f];
+				int displacedHash = hashes[f];
+				int displacedDistance = distances[f];
+				elements[f] = element;
+				hashes[f] = hash;
+				distances[f] = distance;
+				element = displacedElement;
+				hash = displacedHash;
+				distance = displacedDistance;
+			}
+			f = next(f);
+			distance++;
+			passed++;
 		}
+		elements[f] = element;
+		hashes[f] = hash;
+		distances[f] = distance;
+		status[f] = VALID;
+		return passed;
+	}
+
+	/**
+	 * Fills the node of a removed element with ROBIN_HOOD, moving every next
+	 * element of the cluster one node back until an EMPTY node or an element
+	 * already in its first node
+	 * 
+	 * @param free int position of the removed element
+	 * @return number of moved elements
+	 */
+	private int shiftBackRobinHood(int free) {
+		int f = next(free);
+		int moved = 0;
+		while (status[f] == VALID && distances[f] > 0) {
+			elements[free] = elements[f];
+			hashes[free] = hashes[f];
+			distances[free] = distances[f] - 1;
+			free = f;
+			moved++;
+			f = next(f);
+		}
+		elements[free] = null;
+		status[free] = EMPTY;
+		return moved;
+	}
+
+	/**
+	 * Enables or disables backward shift deletion, only available with
+	 * LINEAR_PROBING. Once enabled removals leave no DELETED nodes, and the ones
+	 * already in the table are cleaned. ROBIN_HOOD tables always shift back.
+	 * 
+	 * @param backwardShift true to enable it
+	 */
+	public void setBackwardShiftDeletion(boolean backwardShift) {
+		if (backwardShift && redispersionType != LINEAR_PROBING)
+			throw new IllegalArgumentException("Backward shift deletion needs LINEAR_PROBING");
+
+		this.backwardShift = backwardShift;
+		if (backwardShift && deletedHashNodes > 0)
+			dynamicResize(B);
+	}
+
+	/**
+	 * Returns the number of elements stored in the table
+	 * 
+	 * @return number of valid nodes
+	 */
+	public int size() {
+		return validHashNodes;
 	}
 
 	/**
@@ -159,6 +545,16 @@ public class HashTable<T> {
 		return (double) validHashNodes / B;
 	}
 
+	/**
+	 * Computes the load factor counting the DELETED nodes too, as they lengthen the
+	 * searches like the valid ones
+	 * 
+	 * @return load factor of the valid and DELETED nodes
+	 */
+	private double getOccupiedLF() {
+		return (double) (validHashNodes + deletedHashNodes) / B;
+	}
+
 	/**
 	 * Given an element and the attempt number return the f value for the element
 	 * 
@@ -167,43 +563,227 @@ public class HashTable<T> {
 	 * @return f value
 	 */
 	protected int f(T element, final int attempt) {
+		return fHash(element.hashCode(), attempt);
+	}
+
+	/**
+	 * Given the hash code of an element and the attempt number return the f value
+	 * for the element
+	 * 
+	 * @param hashCode of the element
+	 * @param attempt  number
+	 * @return f value
+	 */
+	private int fHash(int hashCode, final int attempt) {
+		return fHash(hashCode, attempt, B, mask, R);
+	}
+
+	/**
+	 * f value for a table of the given size, so lookups reading a copy of the
+	 * table fields get f values inside the arrays they read
+	 * 
+	 * @param hashCode  of the element
+	 * @param attempt   number
+	 * @param tableSize B of the table
+	 * @param tableMask mask of the table with POWER_OF_TWO_CAPACITY
+	 * @param tableR    R of the table with PRIME_CAPACITY
+	 * @return f value
+	 */
+	private int fHash(int hashCode, final int attempt, int tableSize, int tableMask, int tableR) {
+		if (capacityType == POWER_OF_TWO_CAPACITY)
+			return fMask(hashCode, attempt, tableMask);
+
+		// Absolute value taken after the modulo, as Math.abs(Integer.MIN_VALUE) is
+		// negative
 		int newHashCode = 0;
 
-		if (redispersionType == LINEAR_PROBING)
-			newHashCode = Math.abs(element.hashCode() + attempt) % B;
+		if (redispersionType == LINEAR_PROBING || redispersionType == ROBIN_HOOD)
+			newHashCode = (Math.abs(hashCode % tableSize) + attempt) % tableSize; // consecutive nodes
 		else if (redispersionType == QUADRATIC_PROBING)
-			newHashCode = Math.abs(element.hashCode() + (attempt * attempt)) % B;
+			newHashCode = Math.abs((hashCode + (attempt * attempt)) % tableSize);
 		else if (redispersionType == DOUBLE_HASHING)
-			newHashCode = Math.abs(element.hashCode() + (attempt * (R - element.hashCode() % R))) % B;
+			newHashCode = Math.abs((hashCode + (attempt * (tableR - Math.abs(hashCode % tableR)))) % tableSize);
 
 		return newHashCode;
 	}
 
 	/**
-	 * Method to change the size of the hash table to a new one Will reassign
-	 * variables B, R, validHashNodes and copy all elements in the previous hash
-	 * tables to the new one resized
+	 * f value with POWER_OF_TWO_CAPACITY. The hash code is spread so its high bits
+	 * take part in the low ones kept by the mask. Quadratic probing follows
+	 * triangular numbers and double hashing an odd step, as both visit every node
+	 * of a power of two table.
+	 * 
+	 * @param hashCode  of the element
+	 * @param attempt   number
+	 * @param tableMask B - 1
+	 * @return f value
+	 */
+	private int fMask(int hashCode, final int attempt, int tableMask) {
+		int spread = spread(hashCode);
+		int home = spread & tableMask;
+
+		if (redispersionType == QUADRATIC_PROBING)
+			return (home + ((attempt * (attempt + 1)) >>> 1)) & tableMask;
+		if (redispersionType == DOUBLE_HASHING)
+			return (home + attempt * ((spread >>> 16) | 1)) & tableMask;
+		return (home + attempt) & tableMask;
+	}
+
+	/**
+	 * Returns the node after f, going back to the first one after the last one.
+	 * Robin Hood and the backward shift step with it instead of a modulo.
+	 * 
+	 * @param f int position of a node
+	 * @return int position of the next node
+	 */
+	private int next(int f) {
+		if (capacityType == POWER_OF_TWO_CAPACITY)
+			return (f + 1) & mask;
+		return f + 1 == B ? 0 : f + 1;
+	}
+
+	/**
+	 * Returns the number of nodes from the first node of an element to its node,
+	 * going round the end of the table
+	 * 
+	 * @param f    int position of the node of the element
+	 * @param home int position of its first node
+	 * @return int distance between both nodes
+	 */
+	private int distance(int f, int home) {
+		if (capacityType == POWER_OF_TWO_CAPACITY)
+			return (f - home) & mask;
+		return f >= home ? f - home : f - home + B;
+	}
+
+	/**
+	 * Mixes the bits of a hash code with the finalizer of MurmurHash3, so similar
+	 * hash codes get different low bits
+	 * 
+	 * @param hashCode to spread
+	 * @return int spread hash code
+	 */
+	static int spread(int hashCode) {
+		hashCode ^= hashCode >>> 16;
+		hashCode *= 0x85ebca6b;
+		hashCode ^= hashCode >>> 13;
+		hashCode *= 0xc2b2ae35;
+		hashCode ^= hashCode >>> 16;
+		return hashCode;
+	}
+
+	/**
+	 * Returns the size of the table when it grows
+	 * 
+	 * @param size int current size
+	 * @return int double size, next prime with PRIME_CAPACITY
+	 */
+	private int grownSize(int size) {
+		return capacityType == POWER_OF_TWO_CAPACITY ? size * 2 : getNextPrimeNumber(size * 2);
+	}
+
+	/**
+	 * Returns the size of the table when it shrinks
+	 * 
+	 * @param size int current size
+	 * @return int half size, previous prime with PRIME_CAPACITY
+	 */
+	private int shrunkSize(int size) {
+		return capacityType == POWER_OF_TWO_CAPACITY ? Math.max(size / 2, 1) : getPrevPrimeNumber(size / 2);
+	}
+
+	/**
+	 * Given an integer returns the lowest power of two equal or greater than it
+	 * 
+	 * @param number
+	 * @return power of two
+	 */
+	public static int nextPowerOfTwo(int number) {
+		return number <= 1 ? 1 : Integer.highestOneBit(number - 1) << 1;
+	}
+
+	/**
+	 * Method to change the size of the hash table to a new one, also used with the
+	 * same size to clean the DELETED nodes. If the valid nodes would still exceed
+	 * the maximum load factor the size keeps growing, so the table is only rebuilt
+	 * once. Elements are placed straight in the new arrays with their cached hash
+	 * codes: they are known to be different, so they are not searched, and the new
+	 * table has no DELETED nodes.
 	 * 
 	 * @param newSize to be assigned to the hash table
 	 */
 	private void dynamicResize(int newSize) {
-		// Keep an instance of old table for passing elements to new table
-		List<HashNode<T>> oldTable = associativeArray;
-		// Assign all new variables for the table (associativeArray, B, recompute R and
-		// current valid hash nodes)
-		this.B = newSize;
-		this.R = getPrevPrimeNumber(B);
-		this.associativeArray = new ArrayList<HashNode<T>>();
-		for (int i = 0; i < B; i++) {
-			associativeArray.add(new HashNode<T>());
+		long start = System.nanoTime();
+		while ((double) validHashNodes / newSize > maxLF) {
+			newSize = grownSize(newSize);
 		}
-		this.validHashNodes = 0;
+
+		// Keep the old arrays for passing elements to the new ones
+		Object[] oldElements = elements;
+		int[] oldHashes = hashes;
+		byte[] oldStatus = status;
+		// Assign all new variables for the table (arrays, B and recompute R)
+		allocate(newSize);
 		// Save the relevant elements from old table to new one
-		for (int i = 0; i < oldTable.size(); i++) {
-			if (oldTable.get(i).isValid()) {
-				add(oldTable.get(i).getElement());
-			}
+		for (int i = 0; i < oldStatus.length; i++) {
+			if (oldStatus[i] == VALID)
+				place(oldElements[i], oldHashes[i]);
+		}
+		metrics.recordResize(System.nanoTime() - start);
+	}
+
+	/**
+	 * Places an element known not to be in the table, which has no DELETED nodes,
+	 * without searching it: in the first EMPTY node of its sequence of f values.
+	 * The number of valid nodes is not updated.
+	 * 
+	 * @param element to be placed
+	 * @param hash    int hash code of the element
+	 */
+	private void place(Object element, int hash) {
+		if (redispersionType == ROBIN_HOOD) {
+			placeRobinHood(fHash(hash, 0), element, hash, 0);
+			return;
 		}
+		int currentAttempt = 0;
+		int f = fHash(hash, currentAttempt);
+		while (status[f] != EMPTY) {
+			currentAttempt++;
+			f = fHash(hash, currentAttempt);
+		}
+		elements[f] = element;
+		hashes[f] = hash;
+		status[f] = VALID;
+	}
+
+	/**
+	 * Places elements known to be distinct and not contained in the table without
+	 * searching them. The table must have no DELETED nodes and room for all of
+	 * them under the maximum load factor.
+	 * 
+	 * @param distinct array of elements without duplicates
+	 */
+	private void addDistinct(Object[] distinct) {
+		for (Object element : distinct) {
+			if (element == null)
+				throw new IllegalArgumentException("Null elements are not allowed");
+			place(element, element.hashCode());
+			validHashNodes++;
+		}
+	}
+
+	/**
+	 * Returns the size of the table needed to store a number of elements under the
+	 * maximum load factor
+	 * 
+	 * @param numberOfElements to be stored
+	 * @return B for the capacity type of the table
+	 */
+	private int sizeFor(int numberOfElements) {
+		int minimum = Math.max((int) Math.ceil(numberOfElements / maxLF), 2);
+		if (capacityType == POWER_OF_TWO_CAPACITY)
+			return nextPowerOfTwo(minimum);
+		return isPrime(minimum) ? minimum : getNextPrimeNumber(minimum);
 	}
 
 	/**
@@ -212,10 +792,33 @@ public class HashTable<T> {
 	 * 
 	 * @return number of collision
 	 */
-	public int getNumberOfCollision() {
+	public long getNumberOfCollision() {
 		return this.numberOfCollisions;
 	}
 
+	/**
+	 * Enables or disables the metrics of the table. Enabling them starts new
+	 * counters
+	 * 
+	 * @param enabled true to record the metrics
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		if (!enabled)
+			metrics = HashTableMetrics.NO_OP;
+		else if (!metrics.isEnabled())
+			metrics = new HashTableMetrics();
+	}
+
+	/**
+	 * Returns the metrics of the table with its current load recorded
+	 * 
+	 * @return metrics of the table, HashTableMetrics.NO_OP if they are not enabled
+	 */
+	public HashTableMetrics getMetrics() {
+		metrics.recordLoad(validHashNodes, deletedHashNodes, B);
+		return metrics;
+	}
+
 	/* PRIME NUMBERS METHODS */
 
 	/**
@@ -231,7 +834,8 @@ public class HashTable<T> {
 		if (number == 1)
 			return true;
 
-		for (int i = 2; i < number; i++)
+		// A divisor greater than the square root has its pair below it
+		for (int i = 2; i <= number / i; i++)
 			if (number % i == 0)
 				return false;
 
@@ -285,11 +889,102 @@ public class HashTable<T> {
 
 	@Override
 	public String toString() {
-		String str = "";
+		StringBuilder str = new StringBuilder();
 		for (int i = 0; i < B; i++) {
-			str += String.format("[%s] (%s) = %s - ", i, associativeArray.get(i).getStatus(),
-					associativeArray.get(i).getElement());
+			str.append(String.format("[%s] (%s) = %s - ", i, status[i], elements[i]));
+		}
+		return str.toString();
+	}
+
+	/**
+	 * Builder of hash tables sized for the number of elements they are going to
+	 * store, so filling them does not resize them. By default it builds
+	 * LINEAR_PROBING tables with PRIME_CAPACITY, maxLF 0.5 and no minLF.
+	 */
+	public static class Builder<T> {
+
+		// Collections at least this big are deduplicated in parallel, if enabled
+		static final int PARALLEL_THRESHOLD = 1 << 16;
+
+		private int expectedSize = 0;
+		private int redispersionType = LINEAR_PROBING;
+		private double maxLF = 0.5;
+		private double minLF = NOT_ASSIGNED;
+		private int capacityType = PRIME_CAPACITY;
+		private boolean parallelDeduplication = false;
+
+		public Builder<T> expectedSize(int expectedSize) {
+			if (expectedSize < 0)
+				throw new IllegalArgumentException("Expected size must be equal/greater zero");
+			this.expectedSize = expectedSize;
+			return this;
+		}
+
+		public Builder<T> redispersionType(int redispersionType) {
+			this.redispersionType = redispersionType;
+			return this;
+		}
+
+		public Builder<T> maxLF(double maxLF) {
+			if (maxLF <= 0)
+				throw new IllegalArgumentException("Maximum load factor must be greater than zero");
+			this.maxLF = maxLF;
+			return this;
+		}
+
+		public Builder<T> minLF(double minLF) {
+			this.minLF = minLF;
+			return this;
+		}
+
+		public Builder<T> capacityType(int capacityType) {
+			this.capacityType = capacityType;
+			return this;
+		}
+
+		/**
+		 * Enables removing the duplicated elements of big collections in parallel
+		 * before building the table. Then the distinct elements are placed without
+		 * searching them.
+		 * 
+		 * @param parallelDeduplication true to enable it
+		 * @return this builder
+		 */
+		public Builder<T> parallelDeduplication(boolean parallelDeduplication) {
+			this.parallelDeduplication = parallelDeduplication;
+			return this;
+		}
+
+		/**
+		 * Returns an empty table with room for the expected number of elements
+		 * 
+		 * @return new table
+		 */
+		public HashTable<T> build() {
+			HashTable<T> table = new HashTable<T>(2, redispersionType, maxLF, minLF, capacityType);
+			table.ensureCapacity(expectedSize);
+			return table;
+		}
+
+		/**
+		 * Returns a table with the distinct elements of the collection, sized for
+		 * them or the expected number of elements, whichever is greater
+		 * 
+		 * @param collection of elements to add
+		 * @return new table
+		 */
+		public HashTable<T> build(Collection<? extends T> collection) {
+			if (!parallelDeduplication || collection.size() < PARALLEL_THRESHOLD) {
+				HashTable<T> table = build();
+				table.addAll(collection);
+				return table;
+			}
+
+			Object[] distinct = collection.parallelStream().unordered().distinct().toArray();
+			HashTable<T> table = new HashTable<T>(2, redispersionType, maxLF, minLF, capacityType);
+			table.ensureCapacity(Math.max(expectedSize, distinct.length));
+			table.addDistinct(distinct);
+			return table;
 		}
-		return str;
 	}
 }
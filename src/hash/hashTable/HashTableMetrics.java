@@ -0,0 +1,220 @@
+package hash.hashTable;
+
+import java.util.Arrays;
+
+/**
+ * Metrics of a hash table: number of adds, searches and removes, histograms of
+ * their probe lengths (collisions until the node of the element was found),
+ * nodes moved by ROBIN_HOOD placements and backward shifts,
+ * number of resizes and time spent on them, and the load of the table when the
+ * metrics were last requested. Counters are plain longs, so they do not
+ * overflow and recording costs a few increments per operation.
+ *
+ * NO_OP ignores every record, it is used by the tables that are not measured.
+ */
+public class HashTableMetrics {
+
+	/* OPERATIONS recorded */
+	public static final int ADD = 0;
+	public static final int SEARCH = 1;
+	public static final int REMOVE = 2;
+
+	// Probe lengths from 0 to PROBE_BUCKETS - 2 have their own bucket, the last
+	// one counts all the longer ones
+	public static final int PROBE_BUCKETS = 32;
+
+	public static final HashTableMetrics NO_OP = new HashTableMetrics(false);
+
+	private static final int NUMBER_OF_OPERATIONS = 3;
+
+	private final boolean enabled;
+
+	private final long[] operations = new long[NUMBER_OF_OPERATIONS];
+	private final long[] collisions = new long[NUMBER_OF_OPERATIONS];
+	private final long[][] probeHistogram = new long[NUMBER_OF_OPERATIONS][PROBE_BUCKETS];
+	private final long[] moves = new long[NUMBER_OF_OPERATIONS];
+
+	private long resizes;
+	private long resizeNanos;
+
+	// Load of the table, updated when the table returns its metrics
+	private int validNodes;
+	private int deletedNodes;
+	private int B;
+
+	public HashTableMetrics() {
+		this(true);
+	}
+
+	private HashTableMetrics(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Records an operation and the length of its probe
+	 *
+	 * @param operation   ADD, SEARCH or REMOVE
+	 * @param probeLength number of collisions of the operation
+	 */
+	public void recordProbe(int operation, int probeLength) {
+		if (!enabled)
+			return;
+		operations[operation]++;
+		collisions[operation] += probeLength;
+		probeHistogram[operation][Math.min(probeLength, PROBE_BUCKETS - 1)]++;
+	}
+
+	/**
+	 * Records the nodes an operation moved after its probe: the ones passed by a
+	 * ROBIN_HOOD placement or filled by a backward shift. They are added to the
+	 * collisions of the operation, but not to its probe length in the histogram
+	 *
+	 * @param operation ADD or REMOVE
+	 * @param moved     number of nodes
+	 */
+	public void recordMoves(int operation, int moved) {
+		if (!enabled)
+			return;
+		moves[operation] += moved;
+		collisions[operation] += moved;
+	}
+
+	/**
+	 * Records a resize of the table
+	 *
+	 * @param nanos time spent on the resize
+	 */
+	public void recordResize(long nanos) {
+		if (!enabled)
+			return;
+		resizes++;
+		resizeNanos += nanos;
+	}
+
+	/**
+	 * Records the current load of the table
+	 *
+	 * @param validNodes   number of nodes storing an element
+	 * @param deletedNodes number of DELETED nodes
+	 * @param B            size of the table
+	 */
+	public void recordLoad(int validNodes, int deletedNodes, int B) {
+		if (!enabled)
+			return;
+		this.validNodes = validNodes;
+		this.deletedNodes = deletedNodes;
+		this.B = B;
+	}
+
+	/**
+	 * Sets every counter back to zero
+	 */
+	public void reset() {
+		Arrays.fill(operations, 0);
+		Arrays.fill(collisions, 0);
+		Arrays.fill(moves, 0);
+		for (long[] histogram : probeHistogram) {
+			Arrays.fill(histogram, 0);
+		}
+		resizes = 0;
+		resizeNanos = 0;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the number of operations of a type
+	 *
+	 * @param operation ADD, SEARCH or REMOVE
+	 * @return number of operations
+	 */
+	public long getOperations(int operation) {
+		return operations[operation];
+	}
+
+	/**
+	 * Returns the number of collisions of all the operations of a type, including
+	 * the nodes they moved
+	 *
+	 * @param operation ADD, SEARCH or REMOVE
+	 * @return number of collisions
+	 */
+	public long getCollisions(int operation) {
+		return collisions[operation];
+	}
+
+	/**
+	 * Returns the number of nodes moved by all the operations of a type after
+	 * their probes
+	 *
+	 * @param operation ADD, SEARCH or REMOVE
+	 * @return number of moved nodes
+	 */
+	public long getMoves(int operation) {
+		return moves[operation];
+	}
+
+	/**
+	 * Returns the mean probe length of the operations of a type, moves included
+	 *
+	 * @param operation ADD, SEARCH or REMOVE
+	 * @return mean number of collisions, 0 if there was no operation
+	 */
+	public double getMeanProbeLength(int operation) {
+		return operations[operation] == 0 ? 0 : (double) collisions[operation] / operations[operation];
+	}
+
+	/**
+	 * Returns the histogram of probe lengths of the operations of a type
+	 *
+	 * @param operation ADD, SEARCH or REMOVE
+	 * @return copy of the histogram, position i counts the operations with i
+	 *         collisions. The last one counts every longer probe
+	 */
+	public long[] getProbeHistogram(int operation) {
+		return probeHistogram[operation].clone();
+	}
+
+	public long getResizes() {
+		return resizes;
+	}
+
+	public long getResizeNanos() {
+		return resizeNanos;
+	}
+
+	/**
+	 * Returns the load factor of the table when the metrics were requested
+	 *
+	 * @return valid nodes divided by B, 0 if the load was not recorded
+	 */
+	public double getLF() {
+		return B == 0 ? 0 : (double) validNodes / B;
+	}
+
+	/**
+	 * Returns the ratio of DELETED nodes of the table when the metrics were
+	 * requested
+	 *
+	 * @return DELETED nodes divided by B, 0 if the load was not recorded
+	 */
+	public double getTombstoneRatio() {
+		return B == 0 ? 0 : (double) deletedNodes / B;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		String[] names = { "add", "search", "remove" };
+		for (int operation = 0; operation < NUMBER_OF_OPERATIONS; operation++) {
+			str.append(names[operation]).append(": ").append(operations[operation]);
+			str.append(" (mean probe ").append(String.format("%.2f", getMeanProbeLength(operation))).append(") - ");
+		}
+		str.append("resizes: ").append(resizes).append(" (").append(resizeNanos / 1000000).append(" ms) - ");
+		str.append("LF: ").append(String.format("%.2f", getLF())).append(" - ");
+		str.append("tombstones: ").append(String.format("%.2f", getTombstoneRatio()));
+		return str.toString();
+	}
+}
@@ -0,0 +1,303 @@
+package hash.hashTable;
+
+/**
+ * Open addressing hash table specialized for int elements. Elements are kept
+ * in a flat int[] with a parallel byte[] of statuses, so probing does not
+ * dereference node objects nor box the elements. Offers the same redispersion
+ * types and load factor policy than HashTable.
+ * 
+ * @author UO271506
+ */
+public class IntHashTable {
+
+	private static final byte EMPTY = 0;
+	private static final byte VALID = 1;
+	private static final byte DELETED = 2;
+
+	private int[] elements;
+	private byte[] status;
+	// Represents the maximum size of the associative array
+	private int B;
+	private int redispersionType;
+	private double maxLF;
+	private double minLF = NOT_ASSIGNED;
+	private int R;
+
+	// Stores the number of valid slots in the associative array
+	private int validHashNodes;
+
+	// Stores the number of DELETED slots, counted with the valid ones to decide
+	// when the table is rebuilt
+	private int deletedHashNodes;
+
+	// Stores the number of collision in the table for: add, remove and search
+	// methods
+	private long numberOfCollisions = 0;
+
+	private static final int NOT_ASSIGNED = -1;
+
+	/**
+	 * Constructor to initialize the table
+	 * 
+	 * @param B                int initial size of the table
+	 * @param redispersionType int LINEAR_PROBING, QUADRATIC_PROBING or
+	 *                         DOUBLE_HASHING from HashTable
+	 * @param maxLF            double load factor over which the table grows
+	 */
+	public IntHashTable(int B, int redispersionType, double maxLF) {
+		if (redispersionType < HashTable.LINEAR_PROBING || redispersionType > HashTable.DOUBLE_HASHING)
+			throw new IllegalArgumentException("Unknown redispersion type");
+		this.B = B;
+		this.elements = new int[B];
+		this.status = new byte[B];
+		this.redispersionType = redispersionType;
+		this.maxLF = maxLF;
+		this.R = HashTable.getPrevPrimeNumber(B);
+		this.validHashNodes = 0;
+	}
+
+	/**
+	 * Constructor to initialize the table
+	 * 
+	 * @param B                int initial size of the table
+	 * @param redispersionType int LINEAR_PROBING, QUADRATIC_PROBING or
+	 *                         DOUBLE_HASHING from HashTable
+	 * @param maxLF            double load factor over which the table grows
+	 * @param minLF            double load factor under which the table shrinks
+	 */
+	public IntHashTable(int B, int redispersionType, double maxLF, double minLF) {
+		this(B, redispersionType, maxLF);
+		this.minLF = minLF;
+	}
+
+	/**
+	 * Given an element it will be added into the hash table. After the insertion it
+	 * will be checked if a dynamic resize is needed if the load factor is greater
+	 * than the maximum load factor.
+	 * 
+	 * @param element
+	 */
+	public void add(int element) {
+		if (!addIfAbsent(element))
+			throw new IllegalArgumentException("Element already contained in the hash table");
+	}
+
+	/**
+	 * Adds the element into the hash table if it is not already contained. The
+	 * element is searched and its free slot found in a single probe sequence.
+	 * 
+	 * @param element
+	 * @return true if the element was added. False if it was already contained
+	 */
+	public boolean addIfAbsent(int element) {
+		int f = probe(element);
+		if (f >= 0)
+			return false;
+
+		f = -f - 1;
+		if (status[f] == DELETED)
+			deletedHashNodes--;
+		elements[f] = element;
+		status[f] = VALID;
+		validHashNodes++;
+
+		// Dynamic resize if LF > maxLF
+		if (getLF() > maxLF) {
+			int newSize = HashTable.getNextPrimeNumber(B * 2);
+			dynamicResize(newSize);
+		} else if ((double) (validHashNodes + deletedHashNodes) / B > maxLF) {
+			// Too many DELETED slots, rebuilt without them
+			int newSize = getLF() > maxLF / 2 ? HashTable.getNextPrimeNumber(B * 2) : B;
+			dynamicResize(newSize);
+		}
+		return true;
+	}
+
+	/**
+	 * Searches an element in the table through all the valid slots. If an empty
+	 * slot is found, the execution will be stopped as it is not possible that
+	 * further elements exists from an empty position with a given f value
+	 *
+	 * @param element to be searched
+	 * @return True if the elements is present in a valid slot in the table. False
+	 *         otherwise.
+	 */
+	public boolean search(int element) {
+		return probe(element) >= 0;
+	}
+
+	/**
+	 * Given an element it removes it from the table. Setting the slot containing it
+	 * as deleted. After the removal will determine if a dynamic resize is needed if
+	 * the load factor is lowest than the minimum load factor
+	 * 
+	 * @param element to be removed
+	 */
+	public void remove(int element) {
+		if (!removeIfPresent(element))
+			throw new IllegalArgumentException("Element not contained in the hash table");
+	}
+
+	/**
+	 * Removes the element from the table if it is contained, with a single probe
+	 * sequence
+	 * 
+	 * @param element to be removed
+	 * @return true if the element was removed. False if it was not contained
+	 */
+	public boolean removeIfPresent(int element) {
+		int f = probe(element);
+		if (f < 0)
+			return false;
+
+		status[f] = DELETED;
+		deletedHashNodes++;
+		validHashNodes--;
+
+		if (minLF != NOT_ASSIGNED && getLF() < minLF) {
+			int newSize = HashTable.getPrevPrimeNumber(B / 2);
+			dynamicResize(newSize);
+		}
+		return true;
+	}
+
+	/**
+	 * Follows the sequence of f values of the element once, looking for it and for
+	 * the first slot where it could be added: the first DELETED one, or the EMPTY
+	 * one ending the sequence.
+	 * 
+	 * @param element to be searched
+	 * @return position of the element if it is present. Otherwise -(position + 1)
+	 *         of the slot where it can be added
+	 */
+	private int probe(int element) {
+		int freeSlot = NOT_ASSIGNED;
+		int currentAttempt = 0;
+		int f = f(element, currentAttempt);
+
+		while (status[f] != EMPTY) {
+			// Once attempts exceed B, the search is iterating over all same f values
+			if (currentAttempt > B)
+				break;
+
+			// Only VALID slots are taken into account
+			if (status[f] == VALID) {
+				if (elements[f] == element)
+					return f;
+			} else if (freeSlot == NOT_ASSIGNED) {
+				freeSlot = f;
+			}
+			currentAttempt++;
+			numberOfCollisions++;
+			f = f(element, currentAttempt);
+		}
+
+		if (freeSlot == NOT_ASSIGNED) {
+			// Sequence cut before an EMPTY slot, change the value of f until a free one
+			while (status[f] == VALID) {
+				currentAttempt++;
+				numberOfCollisions++;
+				f = f(element, currentAttempt);
+			}
+			freeSlot = f;
+		}
+		return -freeSlot - 1;
+	}
+
+	/**
+	 * Compute the current load factor of the hash table. It is calculated dividing
+	 * the number of valid slots in the table by B value (Max size)
+	 * 
+	 * @return load factor
+	 */
+	public double getLF() {
+		return (double) validHashNodes / B;
+	}
+
+	/**
+	 * Returns the number of elements in the table
+	 * 
+	 * @return int number of valid slots
+	 */
+	public int size() {
+		return validHashNodes;
+	}
+
+	/**
+	 * Given an element and the attempt number return the f value for the element.
+	 * The hash code of the element is the one of its wrapper class, so both tables
+	 * place the elements in the same positions.
+	 * 
+	 * @param element to be assigned an f value
+	 * @param attempt number
+	 * @return f value
+	 */
+	protected int f(int element, final int attempt) {
+		int hashCode = Integer.hashCode(element);
+		int newHashCode = 0;
+
+		if (redispersionType == HashTable.LINEAR_PROBING)
+			newHashCode = (Math.abs(hashCode % B) + attempt) % B; // consecutive slots
+		else if (redispersionType == HashTable.QUADRATIC_PROBING)
+			newHashCode = Math.abs((hashCode + (attempt * attempt)) % B);
+		else if (redispersionType == HashTable.DOUBLE_HASHING)
+			newHashCode = Math.abs((hashCode + (attempt * (R - Math.abs(hashCode % R)))) % B);
+
+		return newHashCode;
+	}
+
+	/**
+	 * Method to change the size of the hash table to a new one, also used with the
+	 * same size to clean the DELETED slots. If the valid elements would still
+	 * exceed the maximum load factor the size keeps growing, so the table is only
+	 * rebuilt once. The valid elements are placed straight in the new arrays, as
+	 * they are known to be different
+	 * 
+	 * @param newSize to be assigned to the hash table
+	 */
+	private void dynamicResize(int newSize) {
+		while ((double) validHashNodes / newSize > maxLF) {
+			newSize = HashTable.getNextPrimeNumber(newSize * 2);
+		}
+
+		int[] oldElements = elements;
+		byte[] oldStatus = status;
+
+		this.B = newSize;
+		this.R = HashTable.getPrevPrimeNumber(B);
+		this.elements = new int[B];
+		this.status = new byte[B];
+		this.deletedHashNodes = 0;
+		for (int i = 0; i < oldStatus.length; i++) {
+			if (oldStatus[i] == VALID) {
+				int currentAttempt = 0;
+				int f = f(oldElements[i], currentAttempt);
+				while (status[f] != EMPTY) {
+					currentAttempt++;
+					f = f(oldElements[i], currentAttempt);
+				}
+				elements[f] = oldElements[i];
+				status[f] = VALID;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of collision that has happened in the hash table during an
+	 * add, remove or search operation
+	 * 
+	 * @return number of collision
+	 */
+	public long getNumberOfCollision() {
+		return this.numberOfCollisions;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		for (int i = 0; i < B; i++) {
+			str.append(String.format("[%s] (%s) = %s - ", i, status[i], status[i] == EMPTY ? null : elements[i]));
+		}
+		return str.toString();
+	}
+}
@@ -0,0 +1,118 @@
+package hash.hashTable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the keys of a MappedHashTable to a fixed number of bytes and back.
+ * Keys are compared and hashed by their bytes, so two keys must be equal if and
+ * only if their bytes are equal.
+ */
+public interface KeyCodec<T> {
+
+	/**
+	 * Returns the number of bytes of every encoded key
+	 * 
+	 * @return width of the keys
+	 */
+	int width();
+
+	/**
+	 * Writes the bytes of the key
+	 * 
+	 * @param key   to encode
+	 * @param bytes array of width() bytes where the key is written
+	 */
+	void encode(T key, byte[] bytes);
+
+	/**
+	 * Reads a key from its bytes
+	 * 
+	 * @param bytes array of width() bytes with the encoded key
+	 * @return decoded key
+	 */
+	T decode(byte[] bytes);
+
+	KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void encode(Integer key, byte[] bytes) {
+			for (int i = 0; i < Integer.BYTES; i++) {
+				bytes[i] = (byte) (key >>> (24 - 8 * i));
+			}
+		}
+
+		@Override
+		public Integer decode(byte[] bytes) {
+			int key = 0;
+			for (int i = 0; i < Integer.BYTES; i++) {
+				key = (key << 8) | (bytes[i] & 0xff);
+			}
+			return key;
+		}
+	};
+
+	KeyCodec<Long> LONG = new KeyCodec<Long>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void encode(Long key, byte[] bytes) {
+			for (int i = 0; i < Long.BYTES; i++) {
+				bytes[i] = (byte) (key >>> (56 - 8 * i));
+			}
+		}
+
+		@Override
+		public Long decode(byte[] bytes) {
+			long key = 0;
+			for (int i = 0; i < Long.BYTES; i++) {
+				key = (key << 8) | (bytes[i] & 0xff);
+			}
+			return key;
+		}
+	};
+
+	/**
+	 * Returns a codec of strings up to a number of UTF-8 bytes. Every key takes
+	 * two bytes with its length followed by its bytes, padded with zeros.
+	 * 
+	 * @param maxBytes maximum length of the UTF-8 bytes of a key
+	 * @return codec of strings
+	 */
+	static KeyCodec<String> string(final int maxBytes) {
+		if (maxBytes < 0 || maxBytes > 0xffff)
+			throw new IllegalArgumentException("Maximum length must be between 0 and 65535 bytes");
+
+		return new KeyCodec<String>() {
+			@Override
+			public int width() {
+				return maxBytes + 2;
+			}
+
+			@Override
+			public void encode(String key, byte[] bytes) {
+				byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+				if (utf8.length > maxBytes)
+					throw new IllegalArgumentException("Key longer than " + maxBytes + " bytes");
+				bytes[0] = (byte) (utf8.length >>> 8);
+				bytes[1] = (byte) utf8.length;
+				System.arraycopy(utf8, 0, bytes, 2, utf8.length);
+				for (int i = utf8.length + 2; i < bytes.length; i++) {
+					bytes[i] = 0;
+				}
+			}
+
+			@Override
+			public String decode(byte[] bytes) {
+				int length = ((bytes[0] & 0xff) << 8) | (bytes[1] & 0xff);
+				return new String(bytes, 2, length, StandardCharsets.UTF_8);
+			}
+		};
+	}
+}
@@ -0,0 +1,613 @@
+package hash.hashTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hash table stored in a memory-mapped file, so its nodes live off the Java
+ * heap and an existing table is opened without rebuilding it. The file keeps the
+ * layout of HashTable: a header followed by B nodes of status byte, hash code
+ * and key, whose keys are written with a fixed-width KeyCodec. Keys are hashed
+ * and compared by their bytes, so the file does not depend on the hashCode()
+ * of the JVM that wrote it.
+ *
+ * Supports LINEAR_PROBING, QUADRATIC_PROBING and DOUBLE_HASHING with
+ * PRIME_CAPACITY. A single mapping limits the file to 2GB.
+ *
+ * The table grows into a new file, the next generation of the table: file.1,
+ * file.2... Mapped files can not be replaced or deleted on every platform while
+ * their mapping is alive, and a mapping is only released once it is garbage
+ * collected, so no mapped file is ever replaced. The magic number of a new
+ * generation is written once all its nodes are, so open() takes the last
+ * complete generation and deletes the rest of them.
+ */
+public class MappedHashTable<T> implements Closeable {
+
+	/* STATUS of every node in the associative array */
+	private static final byte EMPTY = 0;
+	private static final byte VALID = 1;
+	private static final byte DELETED = 2;
+
+	/* HEADER of the file, the nodes start after it */
+	private static final int MAGIC = 0x48415348; // "HASH"
+	private static final int VERSION = 1;
+	private static final int MAGIC_OFFSET = 0;
+	private static final int VERSION_OFFSET = 4;
+	private static final int B_OFFSET = 8;
+	private static final int TYPE_OFFSET = 12;
+	private static final int KEY_WIDTH_OFFSET = 16;
+	private static final int VALID_OFFSET = 20;
+	private static final int DELETED_OFFSET = 24;
+	private static final int MAX_LF_OFFSET = 28;
+	private static final int HEADER_SIZE = 64;
+
+	// Every node stores its status byte, the int hash code and the key
+	private static final int HASH_OFFSET = 1;
+	private static final int KEY_OFFSET = 5;
+
+	private static final int NOT_ASSIGNED = -1;
+
+	// Path of the table, which is also the file of its generation 0
+	private final Path file;
+	private final KeyCodec<T> codec;
+	private final int nodeWidth;
+	// Bytes of the key being added, searched or removed
+	private final byte[] keyBytes;
+
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int generation;
+
+	private int B;
+	private int R;
+	private int redispersionType;
+	private double maxLF;
+	private int validHashNodes;
+	private int deletedHashNodes;
+
+	private MappedHashTable(Path file, KeyCodec<T> codec) {
+		this.file = file;
+		this.codec = codec;
+		this.nodeWidth = KEY_OFFSET + codec.width();
+		this.keyBytes = new byte[codec.width()];
+	}
+
+	/**
+	 * Creates an empty table in the file, replacing it and its generations if they
+	 * exist
+	 *
+	 * @param file             where the table is stored
+	 * @param codec            of the keys
+	 * @param B                initial size of the table
+	 * @param redispersionType LINEAR_PROBING, QUADRATIC_PROBING or DOUBLE_HASHING
+	 * @param maxLF            load factor over which the table grows
+	 * @return table mapped to the file
+	 * @throws IOException if the file can not be created or mapped
+	 */
+	public static <T> MappedHashTable<T> create(Path file, KeyCodec<T> codec, int B, int redispersionType,
+			double maxLF) throws IOException {
+		if (!isSupported(redispersionType))
+			throw new IllegalArgumentException("Unsupported redispersion type");
+		if (B < 2)
+			throw new IllegalArgumentException("Size must be greater than one");
+
+		MappedHashTable<T> table = new MappedHashTable<T>(file, codec);
+		table.redispersionType = redispersionType;
+		table.maxLF = maxLF;
+		table.fileSize(B);
+		for (int generation : table.generations()) {
+			Files.deleteIfExists(table.generationFile(generation));
+		}
+		FileChannel channel = openChannel(file);
+		try {
+			table.allocate(channel, B);
+			table.buffer.putInt(MAGIC_OFFSET, MAGIC);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		table.channel = channel;
+		return table;
+	}
+
+	/**
+	 * Opens a table previously stored in the file, in its last complete generation
+	 *
+	 * @param file  where the table is stored
+	 * @param codec of the keys, with the same width used when it was created
+	 * @return table mapped to the file
+	 * @throws IOException if the file can not be mapped, it is not a table, its
+	 *                     keys have another width or its header does not match its
+	 *                     size
+	 */
+	public static <T> MappedHashTable<T> open(Path file, KeyCodec<T> codec) throws IOException {
+		MappedHashTable<T> table = new MappedHashTable<T>(file, codec);
+		table.generation = table.lastCompleteGeneration();
+		Path current = table.generationFile(table.generation);
+		FileChannel channel = FileChannel.open(current, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() < HEADER_SIZE)
+				throw new IOException("File too short for a hash table: " + current);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+			if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION)
+				throw new IOException("Not a hash table file: " + current);
+			if (buffer.getInt(KEY_WIDTH_OFFSET) != codec.width())
+				throw new IOException("Keys of " + current + " are " + buffer.getInt(KEY_WIDTH_OFFSET) + " bytes wide");
+
+			int B = buffer.getInt(B_OFFSET);
+			int redispersionType = buffer.getInt(TYPE_OFFSET);
+			if (B < 2 || !isSupported(redispersionType) || channel.size() < HEADER_SIZE + (long) B * table.nodeWidth)
+				throw new IOException("Corrupted hash table header: " + current);
+
+			table.buffer = buffer;
+			table.B = B;
+			table.R = HashTable.getPrevPrimeNumber(B);
+			table.redispersionType = redispersionType;
+			table.validHashNodes = buffer.getInt(VALID_OFFSET);
+			table.deletedHashNodes = buffer.getInt(DELETED_OFFSET);
+			table.maxLF = buffer.getDouble(MAX_LF_OFFSET);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		table.channel = channel;
+		table.deleteOtherGenerations();
+		return table;
+	}
+
+	/**
+	 * Returns the path of a generation of the table
+	 *
+	 * @param generation number, 0 for the file of the table
+	 * @return file storing the generation
+	 */
+	private Path generationFile(int generation) {
+		return generation == 0 ? file : file.resolveSibling(file.getFileName() + "." + generation);
+	}
+
+	/**
+	 * Returns the generations after 0 with a file next to the file of the table
+	 *
+	 * @return generation numbers in ascending order
+	 */
+	private List<Integer> generations() throws IOException {
+		List<Integer> generations = new ArrayList<Integer>();
+		String prefix = file.getFileName() + ".";
+		Path directory = file.toAbsolutePath().getParent();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path sibling : files) {
+				String name = sibling.getFileName().toString();
+				if (name.startsWith(prefix) && name.substring(prefix.length()).matches("[1-9][0-9]{0,8}"))
+					generations.add(Integer.parseInt(name.substring(prefix.length())));
+			}
+		}
+		Collections.sort(generations);
+		return generations;
+	}
+
+	/**
+	 * Returns the last generation whose magic number was written. Generation 0 if
+	 * there is none, so its header is checked as any other file
+	 *
+	 * @return generation to be opened
+	 */
+	private int lastCompleteGeneration() throws IOException {
+		List<Integer> generations = generations();
+		for (int i = generations.size() - 1; i >= 0; i--) {
+			Path path = generationFile(generations.get(i));
+			if (!Files.isRegularFile(path))
+				continue;
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+				if (channel.read(magic, MAGIC_OFFSET) == Integer.BYTES && magic.getInt(0) == MAGIC)
+					return generations.get(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Deletes the files of the older generations and the incomplete newer ones.
+	 * Files still mapped where that is not allowed are kept, to be deleted by a
+	 * later rebuild or open
+	 */
+	private void deleteOtherGenerations() throws IOException {
+		List<Integer> generations = generations();
+		generations.add(0);
+		for (int other : generations) {
+			if (other == generation)
+				continue;
+			try {
+				Files.deleteIfExists(generationFile(other));
+			} catch (IOException e) {
+				// Still mapped, the current generation does not depend on it
+			}
+		}
+	}
+
+	private static boolean isSupported(int redispersionType) {
+		return redispersionType == HashTable.LINEAR_PROBING || redispersionType == HashTable.QUADRATIC_PROBING
+				|| redispersionType == HashTable.DOUBLE_HASHING;
+	}
+
+	private static FileChannel openChannel(Path file) throws IOException {
+		return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Returns the size of the file of a table, checking it fits in a single
+	 * mapping
+	 *
+	 * @param size B of the table
+	 * @return bytes of the header and the nodes
+	 */
+	private long fileSize(int size) {
+		long fileSize = HEADER_SIZE + (long) size * nodeWidth;
+		if (fileSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Table too big for a single mapping");
+		return fileSize;
+	}
+
+	/**
+	 * Maps B empty nodes in the channel and writes the header, but its magic
+	 * number
+	 *
+	 * @param target channel of the file where the table is built
+	 * @param size   new B
+	 */
+	private void allocate(FileChannel target, int size) throws IOException {
+		long fileSize = fileSize(size);
+		this.B = size;
+		this.R = HashTable.getPrevPrimeNumber(B);
+		this.validHashNodes = 0;
+		this.deletedHashNodes = 0;
+		// Mapping beyond the end of the file extends it with zeros, EMPTY nodes
+		this.buffer = target.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+		buffer.putInt(VERSION_OFFSET, VERSION);
+		buffer.putInt(B_OFFSET, B);
+		buffer.putInt(TYPE_OFFSET, redispersionType);
+		buffer.putInt(KEY_WIDTH_OFFSET, codec.width());
+		buffer.putDouble(MAX_LF_OFFSET, maxLF);
+		writeCounts();
+	}
+
+	private void writeCounts() {
+		buffer.putInt(VALID_OFFSET, validHashNodes);
+		buffer.putInt(DELETED_OFFSET, deletedHashNodes);
+	}
+
+	/**
+	 * Adds the element into the table
+	 *
+	 * @param element
+	 * @throws IllegalArgumentException if the element is already contained
+	 */
+	public void add(T element) {
+		if (!addIfAbsent(element))
+			throw new IllegalArgumentException("Element already contained in the hash table");
+	}
+
+	/**
+	 * Adds the element into the table if it is not already contained, with a
+	 * single probe sequence
+	 *
+	 * @param element
+	 * @return true if the element was added. False if it was already contained
+	 */
+	public boolean addIfAbsent(T element) {
+		int hash = encode(element);
+		int f = probe(hash);
+		if (f >= 0)
+			return false;
+
+		f = -f - 1;
+		if (status(f) == DELETED)
+			deletedHashNodes--;
+		writeNode(f, hash);
+		validHashNodes++;
+		writeCounts();
+
+		if (getLF() > maxLF)
+			rebuild(HashTable.getNextPrimeNumber(B * 2));
+		else if ((double) (validHashNodes + deletedHashNodes) / B > maxLF)
+			rebuild(getLF() > maxLF / 2 ? HashTable.getNextPrimeNumber(B * 2) : B);
+		return true;
+	}
+
+	/**
+	 * Searches the element following its sequence of f values
+	 *
+	 * @param element to be searched
+	 * @return true if the element is contained. False otherwise
+	 */
+	public boolean search(T element) {
+		return probe(encode(element)) >= 0;
+	}
+
+	/**
+	 * Removes the element from the table
+	 *
+	 * @param element to be removed
+	 * @throws IllegalArgumentException if the element is not contained
+	 */
+	public void remove(T element) {
+		if (!removeIfPresent(element))
+			throw new IllegalArgumentException("Element not contained in the hash table");
+	}
+
+	/**
+	 * Removes the element from the table if it is contained, leaving its node
+	 * DELETED
+	 *
+	 * @param element to be removed
+	 * @return true if the element was removed. False if it was not contained
+	 */
+	public boolean removeIfPresent(T element) {
+		int f = probe(encode(element));
+		if (f < 0)
+			return false;
+
+		buffer.put(offset(f), DELETED);
+		validHashNodes--;
+		deletedHashNodes++;
+		writeCounts();
+		return true;
+	}
+
+	/**
+	 * Performs the action for every element of the table, in the order of its
+	 * nodes
+	 *
+	 * @param action receiving every decoded element
+	 */
+	public void forEach(Consumer<? super T> action) {
+		byte[] bytes = new byte[codec.width()];
+		for (int f = 0; f < B; f++) {
+			if (status(f) == VALID) {
+				int offset = offset(f) + KEY_OFFSET;
+				for (int i = 0; i < bytes.length; i++) {
+					bytes[i] = buffer.get(offset + i);
+				}
+				action.accept(codec.decode(bytes));
+			}
+		}
+	}
+
+	/**
+	 * Encodes the element into keyBytes
+	 *
+	 * @param element to be encoded
+	 * @return hash code of its bytes
+	 */
+	private int encode(T element) {
+		if (element == null)
+			throw new IllegalArgumentException("Null elements are not allowed");
+		codec.encode(element, keyBytes);
+		return Arrays.hashCode(keyBytes);
+	}
+
+	/**
+	 * Follows the sequence of f values of the key in keyBytes once, looking for it
+	 * and for the first node where it could be added
+	 *
+	 * @param hash of the key
+	 * @return position of the key if it is present. Otherwise -(position + 1) of
+	 *         the node where it can be added
+	 */
+	private int probe(int hash) {
+		int freeNode = NOT_ASSIGNED;
+		int currentAttempt = 0;
+		int f = f(hash, currentAttempt);
+
+		while (status(f) != EMPTY) {
+			// Once attempts exceed B, the search is iterating over all same f values
+			if (currentAttempt > B)
+				break;
+
+			if (status(f) == VALID) {
+				if (buffer.getInt(offset(f) + HASH_OFFSET) == hash && sameKey(f))
+					return f;
+			} else if (freeNode == NOT_ASSIGNED) {
+				freeNode = f;
+			}
+			currentAttempt++;
+			f = f(hash, currentAttempt);
+		}
+
+		if (freeNode == NOT_ASSIGNED) {
+			// Sequence cut before an EMPTY node, change the value of f until a free one
+			while (status(f) == VALID) {
+				currentAttempt++;
+				f = f(hash, currentAttempt);
+			}
+			freeNode = f;
+		}
+		return -freeNode - 1;
+	}
+
+	private boolean sameKey(int f) {
+		int offset = offset(f) + KEY_OFFSET;
+		for (int i = 0; i < keyBytes.length; i++) {
+			if (buffer.get(offset + i) != keyBytes[i])
+				return false;
+		}
+		return true;
+	}
+
+	private void writeNode(int f, int hash) {
+		int offset = offset(f);
+		buffer.putInt(offset + HASH_OFFSET, hash);
+		for (int i = 0; i < keyBytes.length; i++) {
+			buffer.put(offset + KEY_OFFSET + i, keyBytes[i]);
+		}
+		buffer.put(offset, VALID);
+	}
+
+	private byte status(int f) {
+		return buffer.get(offset(f));
+	}
+
+	private int offset(int f) {
+		return HEADER_SIZE + f * nodeWidth;
+	}
+
+	/**
+	 * Given the hash code of a key and the attempt number returns its f value, as
+	 * HashTable does with PRIME_CAPACITY
+	 *
+	 * @param hashCode of the key
+	 * @param attempt  number
+	 * @return f value
+	 */
+	private int f(int hashCode, final int attempt) {
+		if (redispersionType == HashTable.QUADRATIC_PROBING)
+			return Math.abs((hashCode + (attempt * attempt)) % B);
+		if (redispersionType == HashTable.DOUBLE_HASHING)
+			return Math.abs((hashCode + (attempt * (R - Math.abs(hashCode % R)))) % B);
+		return (Math.abs(hashCode % B) + attempt) % B; // consecutive nodes
+	}
+
+	/**
+	 * Builds the table again with the new size, without DELETED nodes. Nodes are
+	 * copied into the file of the next generation, which is only complete once
+	 * its magic number is written after them, so the table in the file is never
+	 * half built. If the new file can not be built, it is deleted and the table
+	 * keeps using the old one.
+	 *
+	 * @param newSize to be assigned to the table
+	 */
+	private void rebuild(int newSize) {
+		while ((double) validHashNodes / newSize > maxLF) {
+			newSize = HashTable.getNextPrimeNumber(newSize * 2);
+		}
+		fileSize(newSize);
+
+		Path next = generationFile(generation + 1);
+		FileChannel oldChannel = channel;
+		MappedByteBuffer oldBuffer = buffer;
+		int oldB = B;
+		int elements = validHashNodes;
+		int deleted = deletedHashNodes;
+		FileChannel newChannel = null;
+		try {
+			newChannel = openChannel(next);
+			allocate(newChannel, newSize);
+			for (int i = 0; i < oldB; i++) {
+				int oldOffset = HEADER_SIZE + i * nodeWidth;
+				if (oldBuffer.get(oldOffset) != VALID)
+					continue;
+
+				// Keys are known to be different, they are not compared
+				int hash = oldBuffer.getInt(oldOffset + HASH_OFFSET);
+				int currentAttempt = 0;
+				int f = f(hash, currentAttempt);
+				while (status(f) != EMPTY) {
+					currentAttempt++;
+					f = f(hash, currentAttempt);
+				}
+				int offset = offset(f);
+				for (int b = 0; b < nodeWidth; b++) {
+					buffer.put(offset + b, oldBuffer.get(oldOffset + b));
+				}
+			}
+			validHashNodes = elements;
+			writeCounts();
+			buffer.force();
+			// Only complete once every node is in the file
+			buffer.putInt(MAGIC_OFFSET, MAGIC);
+			buffer.force();
+		} catch (IOException | RuntimeException e) {
+			// The old file is kept as it was
+			buffer = oldBuffer;
+			B = oldB;
+			R = HashTable.getPrevPrimeNumber(B);
+			validHashNodes = elements;
+			deletedHashNodes = deleted;
+			discard(newChannel, next, e);
+			if (e instanceof IOException)
+				throw new UncheckedIOException("Hash table could not be resized", (IOException) e);
+			throw (RuntimeException) e;
+		}
+
+		channel = newChannel;
+		generation++;
+		try {
+			oldChannel.close();
+			deleteOtherGenerations();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Old hash table file could not be released", e);
+		}
+	}
+
+	/**
+	 * Closes and deletes the new file of a failed rebuild. Errors doing it are
+	 * added to the one that made the rebuild fail
+	 *
+	 * @param newChannel of the new file, null if it was not opened
+	 * @param next       path of the new file
+	 * @param cause      of the failed rebuild
+	 */
+	private static void discard(FileChannel newChannel, Path next, Exception cause) {
+		if (newChannel != null) {
+			try {
+				newChannel.close();
+			} catch (IOException e) {
+				cause.addSuppressed(e);
+			}
+		}
+		try {
+			Files.deleteIfExists(next);
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+
+	/**
+	 * Returns the number of elements stored in the table
+	 *
+	 * @return number of valid nodes
+	 */
+	public int size() {
+		return validHashNodes;
+	}
+
+	/**
+	 * Compute the current load factor of the table
+	 *
+	 * @return valid nodes divided by B
+	 */
+	public double getLF() {
+		return (double) validHashNodes / B;
+	}
+
+	/**
+	 * Writes the changes of the mapped nodes to the file
+	 */
+	public void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Writes the changes to the file and closes it. The mapping is released once
+	 * the table is garbage collected
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+}
@@ -0,0 +1,92 @@
+package avl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
+public class NavigationTest {
+
+	@Test
+	public void testSmallTree() {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		assertFalse(t.iterator().hasNext());
+		assertNull(t.floor(3));
+		for (int i = 10; i <= 50; i += 10) {
+			t.add(i);
+		}
+		assertEquals(Integer.valueOf(20), t.floor(20));
+		assertEquals(Integer.valueOf(20), t.floor(25));
+		assertNull(t.floor(5));
+		assertEquals(Integer.valueOf(30), t.ceiling(25));
+		assertNull(t.ceiling(55));
+		assertEquals(Integer.valueOf(30), t.higher(20));
+		assertNull(t.higher(50));
+		assertEquals(Integer.valueOf(10), t.lower(20));
+		assertNull(t.lower(10));
+
+		assertEquals("[10, 20, 30, 40, 50]", toList(t).toString());
+		assertEquals("[50, 40, 30, 20, 10]", toList(t::descendingIterator).toString());
+		assertEquals("[20, 30]", toList(t.subSet(15, 40)).toString());
+		assertEquals("[]", toList(t.subSet(40, 40)).toString());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testIteratorExhausted() {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		t.add(1);
+		Iterator<Integer> it = t.iterator();
+		it.next();
+		it.next();
+	}
+
+	@Test
+	public void testRandomAgainstTreeSet() {
+		Random random = new Random(24);
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int i = 0; i < 3000; i++) {
+			int x = random.nextInt(10000);
+			t.addIfAbsent(x);
+			expected.add(x);
+		}
+		assertEquals(new ArrayList<Integer>(expected), toList(t));
+		assertEquals(new ArrayList<Integer>(expected.descendingSet()), toList(t::descendingIterator));
+
+		for (int i = 0; i < 500; i++) {
+			int x = random.nextInt(10200) - 100;
+			assertEquals(expected.floor(x), t.floor(x));
+			assertEquals(expected.ceiling(x), t.ceiling(x));
+			assertEquals(expected.higher(x), t.higher(x));
+			assertEquals(expected.lower(x), t.lower(x));
+
+			int y = x + random.nextInt(500);
+			assertEquals(new ArrayList<Integer>(expected.subSet(x, y)), toList(t.subSet(x, y)));
+		}
+
+		// Parallel streams split the tree by positions
+		List<Integer> parallel = StreamSupport.stream(t.spliterator(), true).collect(Collectors.toList());
+		assertEquals(new ArrayList<Integer>(expected), parallel);
+		long sum = StreamSupport.stream(t.spliterator(), true).mapToLong(Integer::longValue).sum();
+		assertEquals(expected.stream().mapToLong(Integer::longValue).sum(), sum);
+		assertEquals(expected.size(), t.spliterator().estimateSize());
+	}
+
+	private static List<Integer> toList(Iterable<Integer> iterable) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer x : iterable) {
+			list.add(x);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,82 @@
+package avl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class OrderStatisticsTest {
+
+	@Test
+	public void testSmallTree() {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		assertEquals(0, t.size());
+		assertNull(t.median());
+		for (int i = 1; i <= 9; i += 2) {
+			t.add(i);
+		}
+		assertEquals(5, t.size());
+		assertEquals(0, t.rank(1));
+		assertEquals(2, t.rank(4));
+		assertEquals(2, t.rank(5));
+		assertEquals(5, t.rank(100));
+		assertEquals(Integer.valueOf(1), t.select(0));
+		assertEquals(Integer.valueOf(9), t.select(4));
+		assertEquals(Integer.valueOf(5), t.median());
+		assertEquals(3, t.countInRange(2, 7));
+		assertEquals(2, t.countInRange(3, 5));
+		assertEquals(0, t.countInRange(7, 3));
+		t.add(10);
+		assertEquals(Integer.valueOf(5), t.median());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSelectOutOfTree() {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		t.add(1);
+		t.select(1);
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(271506);
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int i = 0; i < 3000; i++) {
+			int element = random.nextInt(500);
+			if (expected.contains(element)) {
+				expected.remove(element);
+				t.remove(element);
+			} else {
+				expected.add(element);
+				t.add(element);
+			}
+			assertEquals(expected.size(), t.size());
+		}
+		checkSizes(t.getRoot());
+
+		List<Integer> inOrder = new ArrayList<Integer>(expected);
+		for (int k = 0; k < inOrder.size(); k++) {
+			assertEquals(inOrder.get(k), t.select(k));
+			assertEquals(k, t.rank(inOrder.get(k)));
+		}
+		for (int lo = -10; lo < 510; lo += 37) {
+			int hi = lo + random.nextInt(200);
+			assertEquals(expected.subSet(lo, true, hi, true).size(), t.countInRange(lo, hi));
+		}
+		assertEquals(inOrder.get((inOrder.size() - 1) / 2), t.median());
+	}
+
+	private int checkSizes(AVLNode<Integer> node) {
+		if (node == null)
+			return 0;
+		int size = checkSizes(node.getLeft()) + checkSizes(node.getRight()) + 1;
+		assertEquals(size, node.getSize());
+		return size;
+	}
+}
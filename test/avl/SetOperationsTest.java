@@ -0,0 +1,157 @@
+package avl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class SetOperationsTest {
+
+	@Test
+	public void testSplitAndJoin() {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		for (int i = 0; i < 100; i++) {
+			t.add(i);
+		}
+		AVLTree<Integer> greater = t.split(40);
+		assertEquals(40, t.size());
+		assertEquals(60, greater.size());
+		assertEquals(Integer.valueOf(39), t.select(39));
+		assertEquals(Integer.valueOf(40), greater.select(0));
+		checkBalanced(t.getRoot());
+		checkBalanced(greater.getRoot());
+
+		AVLTree<Integer> empty = greater.split(1000);
+		assertEquals(0, empty.size());
+		assertEquals(60, greater.size());
+
+		// Joining trees of very different heights
+		greater.remove(40);
+		AVLTree<Integer> small = new AVLTree<Integer>();
+		small.add(-1);
+		AVLTree<Integer> joined = AVLTree.join(t, 40, greater);
+		assertEquals(100, joined.size());
+		assertEquals(0, t.size());
+		assertNull(greater.getRoot());
+		checkBalanced(joined.getRoot());
+		joined = AVLTree.join(new AVLTree<Integer>(), -2, AVLTree.join(small, 0, new AVLTree<Integer>()));
+		assertEquals("[-2, -1, 0]", toList(joined).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testJoinUnordered() {
+		AVLTree<Integer> left = new AVLTree<Integer>();
+		left.add(5);
+		AVLTree.join(left, 3, new AVLTree<Integer>());
+	}
+
+	@Test
+	public void testRandomAgainstTreeSet() {
+		Random random = new Random(25);
+		for (int round = 0; round < 30; round++) {
+			// Sizes from similar to very different
+			int n = 1 + random.nextInt(2000);
+			int m = 1 + random.nextInt(round % 2 == 0 ? 2000 : 20);
+			for (int operation = 0; operation < 3; operation++) {
+				TreeSet<Integer> expected = new TreeSet<Integer>();
+				TreeSet<Integer> others = new TreeSet<Integer>();
+				AVLTree<Integer> a = randomTree(random, n, expected);
+				AVLTree<Integer> b = randomTree(random, m, others);
+				if (operation == 0) {
+					expected.addAll(others);
+					a.union(b);
+				} else if (operation == 1) {
+					expected.retainAll(others);
+					a.intersection(b);
+				} else {
+					expected.removeAll(others);
+					a.difference(b);
+				}
+				assertEquals(new ArrayList<Integer>(expected), toList(a));
+				assertEquals(expected.size(), a.size());
+				assertEquals(0, b.size());
+				checkBalanced(a.getRoot());
+			}
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		Random random = new Random(250);
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		TreeSet<Integer> others = new TreeSet<Integer>();
+		AVLTree<Integer> a = randomTree(random, 50000, expected);
+		AVLTree<Integer> b = randomTree(random, 30000, others);
+		AVLTree<Integer> c = randomTree(random, 20000, new TreeSet<Integer>());
+		TreeSet<Integer> removed = new TreeSet<Integer>();
+		for (Integer x : c) {
+			removed.add(x);
+		}
+
+		a.union(b, true);
+		expected.addAll(others);
+		assertEquals(new ArrayList<Integer>(expected), toList(a));
+		checkBalanced(a.getRoot());
+
+		a.difference(c, true);
+		expected.removeAll(removed);
+		assertEquals(new ArrayList<Integer>(expected), toList(a));
+		checkBalanced(a.getRoot());
+
+		AVLTree<Integer> d = randomTree(random, 40000, others = new TreeSet<Integer>());
+		a.intersection(d, true);
+		expected.retainAll(others);
+		assertEquals(new ArrayList<Integer>(expected), toList(a));
+		checkBalanced(a.getRoot());
+	}
+
+	@Test
+	public void testSameTree() {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		t.add(1);
+		t.add(2);
+		assertEquals(2, t.union(t).size());
+		assertEquals(2, t.intersection(t).size());
+		assertEquals(0, t.difference(t).size());
+	}
+
+	private static AVLTree<Integer> randomTree(Random random, int size, TreeSet<Integer> elements) {
+		AVLTree<Integer> t = new AVLTree<Integer>();
+		for (int i = 0; i < size; i++) {
+			int x = random.nextInt(4 * size);
+			t.addIfAbsent(x);
+			elements.add(x);
+		}
+		return t;
+	}
+
+	/**
+	 * Checks the balance factor, height and size of every node of a subtree
+	 * 
+	 * @return height of the subtree, -1 for an empty one
+	 */
+	private static int checkBalanced(AVLNode<Integer> node) {
+		if (node == null)
+			return -1;
+		int left = checkBalanced(node.getLeft());
+		int right = checkBalanced(node.getRight());
+		assertTrue(Math.abs(right - left) <= 1);
+		assertEquals(Math.max(left, right) + 1, node.getHeight());
+		assertEquals(1 + AVLNode.sizeOf(node.getLeft()) + AVLNode.sizeOf(node.getRight()), node.getSize());
+		return node.getHeight();
+	}
+
+	private static List<Integer> toList(Iterable<Integer> iterable) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer x : iterable) {
+			list.add(x);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,107 @@
+package avl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import bst.BSTree;
+
+public class SingleDescentTest {
+
+	/**
+	 * Integer counting the comparisons made by the trees
+	 */
+	private static class Counted implements Comparable<Counted> {
+		static int comparisons = 0;
+		final int value;
+
+		Counted(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public int compareTo(Counted other) {
+			comparisons++;
+			return Integer.compare(value, other.value);
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+
+	@Test
+	public void testOneComparisonPerLevel() {
+		AVLTree<Counted> t = new AVLTree<Counted>();
+		for (int i = 0; i < 1023; i++) {
+			t.add(new Counted(i));
+		}
+		// Full tree of 10 levels
+		assertEquals(10, t.getHeight());
+
+		Counted.comparisons = 0;
+		assertFalse(t.addIfAbsent(new Counted(500)));
+		assertTrue(Counted.comparisons <= t.getHeight());
+
+		Counted.comparisons = 0;
+		assertTrue(t.addIfAbsent(new Counted(5000)));
+		assertTrue(Counted.comparisons <= t.getHeight());
+
+		// Removing a node with two children takes the max of its left subtree without comparing
+		Counted.comparisons = 0;
+		assertTrue(t.removeIfPresent(new Counted(t.getRoot().getElement().value)));
+		assertEquals(1, Counted.comparisons);
+
+		Counted.comparisons = 0;
+		assertFalse(t.removeIfPresent(new Counted(-1)));
+		assertTrue(Counted.comparisons <= t.getHeight());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(271506);
+		AVLTree<Integer> avl = new AVLTree<Integer>();
+		BSTree<Integer> bst = new BSTree<Integer>();
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			int element = random.nextInt(300);
+			if (random.nextBoolean()) {
+				boolean added = expected.add(element);
+				assertEquals(added, avl.addIfAbsent(element));
+				assertEquals(added, bst.addIfAbsent(element));
+			} else {
+				boolean removed = expected.remove(element);
+				assertEquals(removed, avl.removeIfPresent(element));
+				assertEquals(removed, bst.removeIfPresent(element));
+			}
+		}
+		assertEquals(expected.size(), avl.size());
+		checkHeights(avl.getRoot());
+		for (int element = 0; element < 300; element++) {
+			assertEquals(expected.contains(element), avl.search(element));
+			assertEquals(expected.contains(element), bst.search(element));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRemoveMissing() {
+		BSTree<Integer> t = new BSTree<Integer>();
+		t.add(1);
+		t.remove(2);
+	}
+
+	private int checkHeights(AVLNode<Integer> node) {
+		if (node == null)
+			return -1;
+		int height = Math.max(checkHeights(node.getLeft()), checkHeights(node.getRight())) + 1;
+		assertEquals(height, node.getHeight());
+		assertTrue(Math.abs(node.getBF()) <= 1);
+		return height;
+	}
+}
@@ -0,0 +1,96 @@
+package bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import avl.AVLTree;
+
+public class IterativeTreeTest {
+
+	@Test
+	public void testDegenerateTree() {
+		// Sorted elements make a list, deeper than the stack allowed recursion
+		int size = 20000;
+		BSTree<Integer> t = new BSTree<Integer>();
+		for (int i = 0; i < size; i++) {
+			t.add(i);
+		}
+		assertEquals(size, t.getHeight());
+		assertTrue(t.search(size - 1));
+		assertFalse(t.search(size));
+		assertTrue(t.toString().endsWith((size - 1) + "(0)--"));
+
+		ArrayList<BSTNode<Integer>> nodes = new ArrayList<BSTNode<Integer>>();
+		t.treeToArrayInOrder(t.getRoot(), nodes);
+		assertEquals(size, nodes.size());
+		assertEquals(Integer.valueOf(size - 1), nodes.get(size - 1).getElement());
+
+		t.remove(size - 1);
+		assertEquals(size - 1, t.getHeight());
+		t.remove(0);
+		assertEquals(size - 2, t.getHeight());
+		assertFalse(t.removeIfPresent(0));
+	}
+
+	@Test
+	public void testFromSorted() {
+		Integer[] sorted = new Integer[1000];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = i * 2;
+		}
+		BSTree<Integer> bst = BSTree.fromSorted(sorted);
+		AVLTree<Integer> avl = AVLTree.fromSorted(sorted);
+		// 1000 elements fit in 10 levels
+		assertEquals(10, bst.getHeight());
+		assertEquals(10, avl.getHeight());
+		assertEquals(1000, avl.size());
+		assertEquals(Integer.valueOf(998), avl.select(499));
+		for (int i = 0; i < 2000; i++) {
+			assertEquals(i % 2 == 0, bst.search(i));
+			assertEquals(i % 2 == 0, avl.search(i));
+		}
+
+		// The built trees keep working as usual
+		avl.add(1);
+		avl.remove(0);
+		assertEquals(Integer.valueOf(1), avl.select(0));
+		assertEquals("1(0)--", AVLTree.fromSorted(new Integer[] { 1 }).toString());
+		assertEquals("", BSTree.fromSorted(new Integer[0]).toString().replace("-", ""));
+	}
+
+	@Test
+	public void testBalancedJoins() {
+		// Two degenerate trees with interleaved elements
+		int size = 5000;
+		BSTree<Integer> a = new BSTree<Integer>();
+		BSTree<Integer> b = new BSTree<Integer>();
+		for (int i = 0; i < size; i++) {
+			a.add(2 * i);
+			b.add(3 * i);
+		}
+		a.joins(b, true);
+		// 5000 + 5000 - 1667 common elements fit in 14 levels
+		assertEquals(14, a.getHeight());
+		assertEquals(size, b.getHeight());
+		for (int i = 0; i < 3 * size; i++) {
+			assertEquals((i % 2 == 0 && i < 2 * size) || i % 3 == 0, a.search(i));
+		}
+
+		ArrayList<BSTNode<Integer>> nodes = new ArrayList<BSTNode<Integer>>();
+		a.treeToArrayInOrder(a.getRoot(), nodes);
+		assertEquals(size + size - (size + 2) / 3, nodes.size());
+		for (int i = 1; i < nodes.size(); i++) {
+			assertTrue(nodes.get(i - 1).getElement() < nodes.get(i).getElement());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromUnsorted() {
+		AVLTree.fromSorted(new Integer[] { 1, 3, 2 });
+	}
+}
@@ -0,0 +1,112 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AdjacencyListGraphTest {
+
+	/**
+	 * Builds the graph used in L6B exercises with the given storage type
+	 */
+	private Graph<String> createGraph(int storageType) throws Exception {
+		Graph<String> g = new Graph<String>(6, storageType);
+		g.addNode("V1");
+		g.addNode("V2");
+		g.addNode("V3");
+		g.addNode("V4");
+		g.addNode("V5");
+		g.addNode("V6");
+
+		g.addEdge("V1", "V2", 3.0);
+		g.addEdge("V1", "V3", 4.0);
+		g.addEdge("V1", "V5", 8.0);
+		g.addEdge("V2", "V5", 5.0);
+		g.addEdge("V3", "V5", 3.0);
+		g.addEdge("V5", "V6", 3.0);
+		g.addEdge("V5", "V4", 7.0);
+		g.addEdge("V6", "V4", 2.0);
+		g.addEdge("V4", "V1", 0.8);
+		g.removeEdge("V4", "V1");
+		return g;
+	}
+
+	@Test
+	public void testEdges() throws Exception {
+		Graph<String> matrix = createGraph(Graph.ADJACENCY_MATRIX);
+		Graph<String> list = createGraph(Graph.ADJACENCY_LIST);
+
+		assertArrayEquals(matrix.getEdges(), list.getEdges());
+		assertArrayEquals(matrix.getWeight(), list.getWeight());
+		assertTrue(list.existsEdge("V5", "V4"));
+		assertFalse(list.existsEdge("V4", "V5"));
+		assertFalse(list.existsEdge("V4", "V1"));
+
+		// Updating an existing edge does not duplicate it
+		list.addEdge("V1", "V2", 1.0);
+		assertEquals(1.0, list.getWeight()[0][1], 0.0);
+
+		assertEquals(1, list.countDrainNodes());
+		assertEquals(1, list.countSourceNodes());
+		assertTrue(list.isDrainNode("V4"));
+		assertTrue(list.isSourceNode("V1"));
+	}
+
+	@Test
+	public void testRemoveNode() throws Exception {
+		Graph<String> matrix = createGraph(Graph.ADJACENCY_MATRIX);
+		Graph<String> list = createGraph(Graph.ADJACENCY_LIST);
+
+		matrix.removeNode("V2");
+		list.removeNode("V2");
+		matrix.removeNode("V5");
+		list.removeNode("V5");
+
+		assertEquals(4, list.getSize());
+		assertEquals(1, list.getNode("V6"));
+		assertEquals(3, list.getNode("V4"));
+		assertEquals(Graph.INDEX_NOT_FOUND, list.getNode("V2"));
+		assertEquals(Graph.INDEX_NOT_FOUND, matrix.getNode("V5"));
+		assertEquals(1, matrix.getNode("V6"));
+		assertArrayEquals(new boolean[][] {
+			{false, false, true, false},
+			{false, false, false, true},
+			{false, false, false, false},
+			{false, false, false, false}}, list.getEdges());
+		assertArrayEquals(new double[][] {
+			{0.0, 0.0, 4.0, 0.0},
+			{0.0, 0.0, 0.0, 2.0},
+			{0.0, 0.0, 0.0, 0.0},
+			{0.0, 0.0, 0.0, 0.0}}, list.getWeight());
+
+		for (int i = 0; i < list.getSize(); i++) {
+			for (int j = 0; j < list.getSize(); j++) {
+				assertEquals(matrix.getEdges()[i][j], list.getEdges()[i][j]);
+			}
+		}
+	}
+
+	@Test
+	public void testAlgorithms() throws Exception {
+		Graph<String> matrix = createGraph(Graph.ADJACENCY_MATRIX);
+		Graph<String> list = createGraph(Graph.ADJACENCY_LIST);
+
+		assertEquals(matrix.BFPrint("V1"), list.BFPrint("V1"));
+		assertEquals(matrix.traverseGraphDF("V1"), list.traverseGraphDF("V1"));
+		assertArrayEquals(matrix.dijkstra("V1"), list.dijkstra("V1"), 0.0);
+		assertArrayEquals(matrix.PD, list.PD);
+
+		matrix.floyd();
+		list.floyd();
+		assertArrayEquals(list.getA(), matrix.getA());
+		assertArrayEquals(list.getP(), matrix.getP());
+		assertEquals(matrix.printFloydPath("V1", "V6"), list.printFloydPath("V1", "V6"));
+
+		assertEquals(matrix.getCenter(), list.getCenter());
+		assertEquals(2, list.shortestPathLength("V1", "V4"));
+		assertFalse(list.isStronglyConnected());
+		assertTrue(list.isWeaklyConnected());
+		// Checking weak connection does not modify the edges
+		assertFalse(list.existsEdge("V4", "V5"));
+	}
+}
@@ -5,10 +5,13 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ ContainsCycleTest.class, GraphNodeTest.class, IsDrainNodeTest.class, IsSourceNodeTest.class,
-		IsStronglyConnectedTest.class, L4_Graph_sampleTest.class, L5_Floyd_EvalTest.class,
-		L5_Graph_Floyd_DFP_sampleTest.class, L6_TestDijkstra.class, L6B_Exercises_sampleTest.class,
-		LecturesFloydTest.class, PrintFloydTest.class })
+@SuiteClasses({ AdjacencyListGraphTest.class, CachedAnalyticsTest.class, ContainsCycleTest.class,
+		CycleDetectionTest.class, GraphNodeTest.class, HeapDijkstraTest.class,
+		IsDrainNodeTest.class, IsSourceNodeTest.class, IsStronglyConnectedTest.class,
+		IterativeTraversalTest.class, L4_Graph_sampleTest.class, L5_Floyd_EvalTest.class,
+		L5_Graph_Floyd_DFP_sampleTest.class, L6B_Exercises_sampleTest.class, L6_TestDijkstra.class,
+		LecturesFloydTest.class, MinimumSpanningTreeTest.class, ParallelFloydTest.class,
+		PrintFloydTest.class, StronglyConnectedComponentsTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,55 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CachedAnalyticsTest {
+
+	@Test
+	public void testResultsFollowModifications() throws Exception {
+		Graph<Character> g = new Graph<Character>(5);
+		g.addNode('a');
+		g.addNode('b');
+		g.addNode('c');
+		g.addNode('d');
+
+		g.addEdge('a', 'b', 1.0);
+		g.addEdge('b', 'c', 1.0);
+		g.addEdge('c', 'd', 1.0);
+		g.addEdge('d', 'a', 1.0);
+
+		assertTrue(g.isStronglyConnected());
+		assertTrue(g.isStronglyConnected());
+		assertEquals(3, g.shortestPathLength('a', 'd'));
+		assertEquals(Character.valueOf('a'), g.getCenter());
+
+		// A and P are overwritten without modifying the graph
+		g.floydForShortestPathLength();
+		assertTrue(g.isStronglyConnected());
+		assertEquals(Character.valueOf('a'), g.getCenter());
+
+		g.addEdge('a', 'd', 1.0);
+		assertEquals(1, g.shortestPathLength('a', 'd'));
+		assertEquals(1.0, g.cheapestPathCost('a', 'd'), 0.0);
+
+		g.removeEdge('d', 'a');
+		assertFalse(g.isStronglyConnected());
+		assertTrue(g.isWeaklyConnected());
+		assertFalse(g.isStronglyConnected());
+		assertFalse(g.existsEdge('b', 'a'));
+
+		g.addNode('e');
+		assertFalse(g.isWeaklyConnected());
+		g.addEdge('e', 'a', 2.0);
+		assertTrue(g.isWeaklyConnected());
+		assertEquals(2, g.shortestPathLength('e', 'b'));
+
+		g.turnEdgesToBidirectional();
+		assertTrue(g.isStronglyConnected());
+		assertEquals(1, g.shortestPathLength('b', 'a'));
+
+		g.removeNode('a');
+		assertFalse(g.isStronglyConnected());
+	}
+}
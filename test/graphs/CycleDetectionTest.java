@@ -0,0 +1,79 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CycleDetectionTest {
+
+	@Test
+	public void testWitnessCycle() throws Exception {
+		Graph<String> g = new Graph<String>(5, Graph.ADJACENCY_LIST);
+		// Elements containing the old separator of the traversals
+		g.addNode("a-1");
+		g.addNode("b-1");
+		g.addNode("c-1");
+		g.addNode("d-1");
+		g.addNode("e-1");
+
+		g.addEdge("a-1", "b-1", 1.0);
+		g.addEdge("a-1", "c-1", 1.0);
+		g.addEdge("c-1", "d-1", 1.0);
+		g.addEdge("b-1", "d-1", 1.0);
+		g.addEdge("d-1", "e-1", 1.0);
+		assertFalse(g.containsCycles());
+		assertTrue(g.getCycle().isEmpty());
+		assertEquals(Arrays.asList("a-1", "b-1", "c-1", "d-1", "e-1"), g.topologicalOrder());
+
+		g.addEdge("e-1", "c-1", 1.0);
+		assertTrue(g.containsCycles());
+		// Found from a through b, so the cycle starts at d
+		assertEquals(Arrays.asList("d-1", "e-1", "c-1"), g.getCycle());
+
+		g.removeEdge("e-1", "c-1");
+		g.addEdge("b-1", "b-1", 1.0);
+		assertEquals(Arrays.asList("b-1"), g.getCycle());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTopologicalOrderWithCycles() throws Exception {
+		Graph<Character> g = new Graph<Character>(3);
+		g.addNode('a');
+		g.addNode('b');
+		g.addNode('c');
+		g.addEdge('c', 'a', 1.0);
+		g.addEdge('a', 'b', 1.0);
+		g.addEdge('b', 'a', 1.0);
+		g.topologicalOrder();
+	}
+
+	@Test
+	public void testEveryEdgeGoesForward() throws Exception {
+		int size = 200;
+		Graph<Integer> g = new Graph<Integer>(size, Graph.ADJACENCY_LIST);
+		for (int i = 0; i < size; i++) {
+			g.addNode(i);
+		}
+		// Edges from greater to lower elements only, so the graph is a DAG
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < i; j += 7) {
+				g.addEdge(i, j, 1.0);
+			}
+		}
+		assertFalse(g.containsCycles());
+
+		List<Integer> order = g.topologicalOrder();
+		int[] position = new int[size];
+		for (int p = 0; p < size; p++) {
+			position[order.get(p)] = p;
+		}
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < i; j += 7) {
+				assertTrue(position[i] < position[j]);
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HeapDijkstraTest {
+
+	@Test
+	public void testTiesKeepFirstPivot() throws Exception {
+		Graph<Character> g = new Graph<Character>(5, Graph.ADJACENCY_LIST);
+		g.addNode('a');
+		g.addNode('b');
+		g.addNode('c');
+		g.addNode('d');
+		g.addNode('e');
+
+		// Both b and c reach d with the same cost, b is the first pivot
+		g.addEdge('a', 'b', 1.0);
+		g.addEdge('a', 'c', 1.0);
+		g.addEdge('b', 'd', 2.0);
+		g.addEdge('c', 'd', 2.0);
+		g.addEdge('a', 'd', 5.0);
+
+		assertArrayEquals(new double[] { 0.0, 1.0, 1.0, 3.0, Graph.INFINITE }, g.dijkstra('a'), 0.0);
+		assertArrayEquals(new int[] { Graph.EMPTY, 0, 0, 1, Graph.EMPTY }, g.PD);
+	}
+
+	@Test
+	public void testSameCostsThanFloyd() throws Exception {
+		Random random = new Random(271506);
+		int size = 60;
+		Graph<Integer> g = new Graph<Integer>(size, Graph.ADJACENCY_LIST);
+		for (int i = 0; i < size; i++) {
+			g.addNode(i);
+		}
+		for (int e = 0; e < size * 3; e++) {
+			g.addEdge(random.nextInt(size), random.nextInt(size), random.nextInt(20));
+		}
+
+		g.floyd();
+		double[][] A = g.getA();
+		for (int i = 0; i < size; i++) {
+			assertArrayEquals(A[i], g.dijkstra(i), 0.0);
+			// Every reached node comes from a pivot whose cost plus the edge is its cost
+			for (int j = 0; j < size; j++) {
+				if (g.PD[j] != Graph.EMPTY)
+					assertEquals(g.D[j], g.D[g.PD[j]] + g.getEdgeWeight(g.PD[j], j), 0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IterativeTraversalTest {
+
+	@Test
+	public void testStreamsFollowStrings() throws Exception {
+		Graph<String> g = new Graph<String>(5);
+		g.addNode("A");
+		g.addNode("B");
+		g.addNode("C");
+		g.addNode("D");
+		g.addNode("E");
+
+		g.addEdge("A", "B", 1.0);
+		g.addEdge("A", "C", 1.0);
+		g.addEdge("B", "D", 1.0);
+		g.addEdge("C", "E", 1.0);
+		g.addEdge("D", "A", 1.0);
+
+		assertEquals("A-B-D-C-E-", g.traverseGraphDF("A"));
+		assertArrayEquals(new int[] { 0, 1, 3, 2, 4 }, g.streamGraphDF("A").toArray());
+		// Edge back to the start does not print it again
+		assertEquals("A-B-C-D-E-", g.BFPrint("A"));
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, g.streamGraphBF("A").toArray());
+		assertEquals("D-A-B-C-E-", g.BFPrint("D"));
+
+		List<Integer> reached = new ArrayList<Integer>();
+		g.traverseGraphDF(2, i -> reached.add(i));
+		assertEquals(2, reached.size());
+		assertTrue(g.containsCycles());
+
+		g.removeEdge("D", "A");
+		assertFalse(g.containsCycles());
+	}
+
+	@Test
+	public void testDeepGraph() throws Exception {
+		// A recursive search would overflow the stack on such a long path
+		int size = 100000;
+		Graph<Integer> g = new Graph<Integer>(size, Graph.ADJACENCY_LIST);
+		for (int i = 0; i < size; i++) {
+			g.addNode(i);
+		}
+		for (int i = 0; i < size - 1; i++) {
+			g.addEdge(i, i + 1, 1.0);
+		}
+
+		assertEquals(size, g.streamGraphDF(0).count());
+		assertEquals(size, g.streamGraphBF(0).count());
+		assertEquals((size - 3) + "-" + (size - 2) + "-" + (size - 1) + "-", g.traverseGraphDF(Integer.valueOf(size - 3)));
+		assertTrue(g.DFPrint(0).endsWith("-" + (size - 1) + "-"));
+	}
+}
@@ -0,0 +1,130 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MinimumSpanningTreeTest {
+
+	private Graph<String> createGraph(int storageType) throws Exception {
+		Graph<String> g = new Graph<String>(7, storageType);
+		g.addNode("V1");
+		g.addNode("V2");
+		g.addNode("V3");
+		g.addNode("V4");
+		g.addNode("V5");
+		g.addNode("V6");
+
+		g.addEdge("V1", "V2", 1.0);
+		g.addEdge("V1", "V3", 3.0);
+		g.addEdge("V1", "V4", 3.0);
+		g.addEdge("V2", "V3", 2.0);
+		g.addEdge("V2", "V4", 2.0);
+		g.addEdge("V2", "V6", 1.0);
+		g.addEdge("V3", "V4", 1.0);
+		g.addEdge("V3", "V5", 2.0);
+		g.addEdge("V4", "V5", 3.0);
+		g.addEdge("V4", "V6", 2.0);
+		g.turnEdgesToBidirectional();
+		return g;
+	}
+
+	@Test
+	public void testPrimAndKruskal() throws Exception {
+		for (int storageType : new int[] { Graph.ADJACENCY_MATRIX, Graph.ADJACENCY_LIST }) {
+			Graph<String> g = createGraph(storageType);
+
+			SpanningTree<String> prim = g.primTree("V1");
+			assertEquals(Arrays.asList("V1", "V2", "V6", "V3", "V4", "V5"), prim.getNodes());
+			assertEquals(7.0, prim.getCost(), 0.0);
+			assertEquals(5, prim.getEdges().size());
+			assertEquals("V2", prim.getEdges().get(2).getOrigin());
+			assertEquals("V3", prim.getEdges().get(2).getDestination());
+			assertEquals(1, prim.getNumberOfTrees());
+
+			SpanningTree<String> kruskal = g.kruskal();
+			assertEquals(7.0, kruskal.getCost(), 0.0);
+			assertEquals(5, kruskal.getEdges().size());
+			assertEquals(1, kruskal.getNumberOfTrees());
+			assertSame(kruskal, g.kruskal());
+
+			// Disconnected node: Prim from V1 no longer loops forever
+			g.addNode("V7");
+			assertEquals("[V1, V2, V6, V3, V4, V5]", g.prim("V1"));
+			assertEquals(2, g.kruskal().getNumberOfTrees());
+			assertEquals(2, g.primForest().getNumberOfTrees());
+			assertEquals(7.0, g.primForest().getCost(), 0.0);
+			assertEquals(7, g.primForest().getNodes().size());
+		}
+	}
+
+	@Test
+	public void testAsymmetricGraph() throws Exception {
+		for (int storageType : new int[] { Graph.ADJACENCY_MATRIX, Graph.ADJACENCY_LIST }) {
+			Graph<String> g = new Graph<String>(3, storageType);
+			g.addNode("A");
+			g.addNode("B");
+			g.addNode("C");
+			g.addEdge("A", "B", 1.0);
+			g.addEdge("B", "A", 1.0);
+			g.addEdge("B", "C", 2.0);
+			g.addEdge("C", "B", 5.0);
+
+			// Different weights in each direction
+			assertAsymmetric(g);
+			// Edge in a single direction
+			g.addEdge("C", "B", 2.0);
+			g.addEdge("A", "C", 1.0);
+			assertAsymmetric(g);
+
+			g.removeEdge("A", "C");
+			assertEquals(3.0, g.kruskal().getCost(), 0.0);
+			assertEquals(3.0, g.primTree("A").getCost(), 0.0);
+		}
+	}
+
+	private void assertAsymmetric(Graph<String> g) {
+		try {
+			g.primTree("A");
+			fail("Prim should reject the graph");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			g.primForest();
+			fail("Prim should reject the graph");
+		} catch (IllegalStateException e) {
+		}
+		try {
+			g.kruskal();
+			fail("Kruskal should reject the graph");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	@Test
+	public void testForestsHaveSameCost() throws Exception {
+		Random random = new Random(271506);
+		int size = 150;
+		Graph<Integer> g = new Graph<Integer>(size, Graph.ADJACENCY_LIST);
+		for (int i = 0; i < size; i++) {
+			g.addNode(i);
+		}
+		for (int e = 0; e < size; e++) {
+			int i = random.nextInt(size);
+			int j = random.nextInt(size);
+			double weight = random.nextInt(50);
+			g.addEdge(i, j, weight);
+			g.addEdge(j, i, weight);
+		}
+
+		SpanningTree<Integer> prim = g.primForest();
+		SpanningTree<Integer> kruskal = g.kruskal();
+		assertEquals(kruskal.getCost(), prim.getCost(), 0.0);
+		assertEquals(kruskal.getNumberOfTrees(), prim.getNumberOfTrees());
+		assertEquals(size - kruskal.getNumberOfTrees(), kruskal.getEdges().size());
+		assertEquals(size - prim.getNumberOfTrees(), prim.getEdges().size());
+	}
+}
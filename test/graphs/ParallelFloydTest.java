@@ -0,0 +1,58 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ParallelFloydTest {
+
+	@Test
+	public void testBigGraph() throws Exception {
+		Random random = new Random(271506);
+		// Big enough to split floyd rows among the ForkJoinPool threads
+		int size = 300;
+		Graph<Integer> g = new Graph<Integer>(size, Graph.ADJACENCY_LIST);
+		for (int i = 0; i < size; i++) {
+			g.addNode(i);
+		}
+		for (int e = 0; e < size * 4; e++) {
+			g.addEdge(random.nextInt(size), random.nextInt(size), random.nextInt(10));
+		}
+
+		// Serial floyd over the initial matrices, without any iteration done
+		g.floyd(0);
+		double[][] serialA = new double[size][];
+		int[][] serialP = new int[size][];
+		for (int i = 0; i < size; i++) {
+			serialA[i] = g.getA()[i].clone();
+			serialP[i] = g.getP()[i].clone();
+		}
+		serialFloyd(serialA, serialP, size);
+
+		g.floyd();
+		double[][] A = g.getA();
+		int[][] P = g.getP();
+		for (int i = 0; i < size; i++) {
+			assertArrayEquals(serialA[i], A[i], 0.0);
+			assertArrayEquals(serialP[i], P[i]);
+		}
+		for (int i = 0; i < size; i += 7) {
+			assertArrayEquals(g.dijkstra(i), A[i], 0.0);
+		}
+	}
+
+	private static void serialFloyd(double[][] A, int[][] P, int size) {
+		for (int k = 0; k < size; k++) {
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					if (A[i][k] + A[k][j] < A[i][j]) {
+						A[i][j] = A[i][k] + A[k][j];
+						P[i][j] = k;
+					}
+				}
+			}
+		}
+	}
+}
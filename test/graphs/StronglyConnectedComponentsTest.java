@@ -0,0 +1,98 @@
+package graphs;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StronglyConnectedComponentsTest {
+
+	private Graph<Character> createGraph(int storageType) throws Exception {
+		Graph<Character> g = new Graph<Character>(8, storageType);
+		for (char c = 'a'; c <= 'h'; c++) {
+			g.addNode(c);
+		}
+		// Components {a, b, e}, {c, d, h} and {f, g}
+		g.addEdge('a', 'b', 1.0);
+		g.addEdge('b', 'e', 1.0);
+		g.addEdge('e', 'a', 1.0);
+		g.addEdge('b', 'f', 4.0);
+		g.addEdge('e', 'f', 2.0);
+		g.addEdge('b', 'c', 1.0);
+		g.addEdge('c', 'd', 1.0);
+		g.addEdge('d', 'c', 1.0);
+		g.addEdge('d', 'h', 1.0);
+		g.addEdge('h', 'd', 1.0);
+		g.addEdge('c', 'g', 3.0);
+		g.addEdge('f', 'g', 1.0);
+		g.addEdge('g', 'f', 1.0);
+		g.addEdge('h', 'g', 1.0);
+		return g;
+	}
+
+	@Test
+	public void testComponents() throws Exception {
+		for (int storageType : new int[] { Graph.ADJACENCY_MATRIX, Graph.ADJACENCY_LIST }) {
+			Graph<Character> g = createGraph(storageType);
+			List<List<Character>> components = g.stronglyConnectedComponents();
+			assertEquals(3, components.size());
+			assertEquals(Arrays.asList('a', 'b', 'e'), components.get(0));
+			assertEquals(Arrays.asList('c', 'd', 'h'), components.get(1));
+			assertEquals(Arrays.asList('f', 'g'), components.get(2));
+
+			Graph<Integer> condensation = g.getCondensation();
+			assertEquals(3, condensation.getSize());
+			assertTrue(condensation.existsEdge(0, 1));
+			assertTrue(condensation.existsEdge(0, 2));
+			assertTrue(condensation.existsEdge(1, 2));
+			assertFalse(condensation.existsEdge(2, 0));
+			// Cheapest edge between both components
+			assertEquals(2.0, condensation.getEdgeWeight(0, 2), 0.0);
+			assertEquals(1.0, condensation.getEdgeWeight(1, 2), 0.0);
+
+			assertFalse(g.isStronglyConnected());
+			assertTrue(g.isSemiConnected());
+			assertTrue(g.isWeaklyConnected());
+
+			g.removeEdge('b', 'c');
+			assertFalse(g.isSemiConnected());
+			assertTrue(g.isWeaklyConnected());
+
+			g.addEdge('b', 'c', 1.0);
+			g.addEdge('g', 'a', 1.0);
+			assertTrue(g.isStronglyConnected());
+			assertEquals(1, g.stronglyConnectedComponents().size());
+		}
+	}
+
+	@Test
+	public void testDeepGraph() throws Exception {
+		// A recursive search would overflow the stack on such a long path
+		int size = 100000;
+		Graph<Integer> g = new Graph<Integer>(size, Graph.ADJACENCY_LIST);
+		for (int i = 0; i < size; i++) {
+			g.addNode(i);
+		}
+		for (int i = 0; i < size - 1; i++) {
+			g.addEdge(i, i + 1, 1.0);
+		}
+		assertEquals(size, g.stronglyConnectedComponents().size());
+		assertTrue(g.isSemiConnected());
+		assertFalse(g.isStronglyConnected());
+
+		g.addEdge(size - 1, 0, 1.0);
+		assertTrue(g.isStronglyConnected());
+		assertTrue(g.isWeaklyConnected());
+	}
+
+	@Test
+	public void testEmptyGraph() throws Exception {
+		Graph<Integer> g = new Graph<Integer>(3);
+		assertTrue(g.stronglyConnectedComponents().isEmpty());
+		assertTrue(g.isStronglyConnected());
+		assertTrue(g.isSemiConnected());
+		assertTrue(g.isWeaklyConnected());
+	}
+}
@@ -0,0 +1,205 @@
+package hash.hashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import hash.hashTable.HashTableMetrics;
+
+public class HashMapApiTest {
+
+	@Test
+	public void putReplacesValue() throws Exception {
+		HashMap<Integer, String> a = new HashMap<Integer, String>(5, HashMap.LINEAR_PROBING, 1.0);
+		assertNull(a.put(0, "a"));
+		assertNull(a.put(5, "b"));
+		assertEquals("a", a.put(0, "c"));
+		assertEquals(2, a.size());
+		assertEquals("[0] (1) = 0 : c - [1] (1) = 5 : b - [2] (0) = null : null - [3] (0) = null : null - [4] (0) = null : null - ", a.toString());
+
+		assertEquals("c", a.get(0));
+		assertNull(a.get(10));
+		assertEquals("z", a.getOrDefault(10, "z"));
+		assertEquals("c", a.putIfAbsent(0, "d"));
+		assertNull(a.putIfAbsent(10, "d"));
+		assertEquals("d", a.get(10));
+
+		assertEquals("c", a.remove(0));
+		assertNull(a.remove(0));
+		// 5 is still found behind the DELETED node
+		assertEquals("b", a.get(5));
+		assertEquals(2, a.size());
+	}
+
+	@Test
+	public void computeAndMerge() throws Exception {
+		HashMap<String, Integer> counts = new HashMap<String, Integer>(3, HashMap.DOUBLE_HASHING, 0.7);
+		String[] words = { "a", "b", "a", "c", "a", "b" };
+		for (String word : words) {
+			counts.merge(word, 1, Integer::sum);
+		}
+		assertEquals(Integer.valueOf(3), counts.get("a"));
+		assertEquals(Integer.valueOf(2), counts.get("b"));
+		assertEquals(Integer.valueOf(1), counts.get("c"));
+
+		// Null result of the function removes the key
+		assertNull(counts.merge("c", 1, (current, given) -> null));
+		assertFalse(counts.search("c"));
+
+		HashMap<Integer, List<Integer>> groups = new HashMap<Integer, List<Integer>>(5, HashMap.QUADRATIC_PROBING, 0.5);
+		for (int i = 0; i < 20; i++) {
+			groups.computeIfAbsent(i % 3, k -> new ArrayList<Integer>()).add(i);
+		}
+		assertEquals(3, groups.size());
+		assertEquals(7, groups.get(0).size());
+		assertNull(groups.computeIfAbsent(9, k -> null));
+		assertFalse(groups.search(9));
+	}
+
+	@Test
+	public void iteration() throws Exception {
+		HashMap<Integer, Integer> a = new HashMap<Integer, Integer>(7, HashMap.LINEAR_PROBING, 0.5);
+		int keySum = 0;
+		for (int i = 0; i < 50; i++) {
+			a.put(i, i * 10);
+			keySum += i;
+		}
+		a.remove(7);
+		keySum -= 7;
+
+		int entries = 0;
+		for (Map.Entry<Integer, Integer> entry : a.entries()) {
+			assertEquals(entry.getKey() * 10, (int) entry.getValue());
+			entries++;
+		}
+		assertEquals(49, entries);
+
+		int iteratedKeys = 0;
+		for (int key : a.keys()) {
+			iteratedKeys += key;
+		}
+		assertEquals(keySum, iteratedKeys);
+
+		int iteratedValues = 0;
+		for (int value : a.values()) {
+			iteratedValues += value;
+		}
+		assertEquals(keySum * 10, iteratedValues);
+		assertTrue(a.keys().iterator().hasNext());
+	}
+
+	@Test
+	public void removalsWithChurn() throws Exception {
+		HashMap<Integer, Integer> shifted = new HashMap<Integer, Integer>(7, HashMap.LINEAR_PROBING, 0.7);
+		shifted.setBackwardShiftDeletion(true);
+		HashMap<Integer, Integer> deleted = new HashMap<Integer, Integer>(7, HashMap.DOUBLE_HASHING, 0.7);
+		for (int i = 0; i < 3000; i++) {
+			shifted.put(i, i);
+			deleted.put(i, i);
+			if (i >= 4) {
+				assertEquals(Integer.valueOf(i - 4), shifted.remove(i - 4));
+				assertEquals(Integer.valueOf(i - 4), deleted.remove(i - 4));
+			}
+		}
+		assertFalse(shifted.toString().contains("(2)"));
+		assertEquals(4, shifted.size());
+		assertEquals(4, deleted.size());
+		for (int i = 2996; i < 3000; i++) {
+			assertEquals(Integer.valueOf(i), shifted.get(i));
+			assertEquals(Integer.valueOf(i), deleted.get(i));
+		}
+		assertNull(shifted.get(2995));
+		assertNull(deleted.get(2995));
+	}
+
+	@Test
+	public void robinHood() throws Exception {
+		HashMap<Integer, Integer> a = new HashMap<Integer, Integer>(7, HashMap.ROBIN_HOOD, 0.85, 0.2);
+		java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<Integer, Integer>();
+		java.util.Random random = new java.util.Random(271506);
+		for (int i = 0; i < 20000; i++) {
+			int key = random.nextInt(1000);
+			if (random.nextBoolean())
+				assertEquals(expected.put(key, i), a.put(key, i));
+			else
+				assertEquals(expected.remove(key), a.remove(key));
+		}
+		assertEquals(expected.size(), a.size());
+		for (int key = 0; key < 1000; key++) {
+			assertEquals(expected.get(key), a.get(key));
+		}
+	}
+
+	@Test
+	public void bulkOperations() throws Exception {
+		java.util.HashMap<Integer, String> entries = new java.util.HashMap<Integer, String>();
+		for (int i = 0; i < 3000; i++) {
+			entries.put(i, "v" + i);
+		}
+		HashMap<Integer, String> a = new HashMap.Builder<Integer, String>().redispersionType(HashMap.DOUBLE_HASHING)
+				.maxLF(0.6).build(entries);
+		assertEquals(3000, a.size());
+		assertEquals("v2999", a.get(2999));
+
+		a.setMetricsEnabled(true);
+		java.util.HashMap<Integer, String> more = new java.util.HashMap<Integer, String>();
+		for (int i = 2000; i < 6000; i++) {
+			more.put(i, "w" + i);
+		}
+		a.putAll(more);
+		assertEquals(6000, a.size());
+		assertEquals(1, a.getMetrics().getResizes());
+		assertEquals("v1999", a.get(1999));
+		assertEquals("w2000", a.get(2000));
+		assertEquals(0, new HashMap.Builder<Integer, String>().build(new java.util.HashMap<Integer, String>()).size());
+	}
+
+	@Test
+	public void metrics() throws Exception {
+		HashMap<Integer, Integer> a = new HashMap<Integer, Integer>(7, HashMap.LINEAR_PROBING, 0.5);
+		a.setMetricsEnabled(true);
+		a.put(0, 0);
+		a.put(7, 7);
+		a.put(7, 8);
+		assertEquals(Integer.valueOf(8), a.get(7));
+		assertNull(a.remove(14));
+		HashTableMetrics metrics = a.getMetrics();
+		assertEquals(3, metrics.getOperations(HashTableMetrics.ADD));
+		assertEquals(1, metrics.getOperations(HashTableMetrics.SEARCH));
+		assertEquals(1, metrics.getOperations(HashTableMetrics.REMOVE));
+		// 7 collides with 0 every time it is probed, 14 with both
+		assertEquals(2, metrics.getCollisions(HashTableMetrics.ADD));
+		assertEquals(1, metrics.getCollisions(HashTableMetrics.SEARCH));
+		assertEquals(2, metrics.getCollisions(HashTableMetrics.REMOVE));
+		assertEquals(5, a.getNumberOfCollision());
+		assertEquals(2.0 / 7, metrics.getLF(), 0.0);
+	}
+
+	@Test
+	public void powerOfTwoCapacity() throws Exception {
+		int[] types = { HashMap.LINEAR_PROBING, HashMap.QUADRATIC_PROBING, HashMap.DOUBLE_HASHING, HashMap.ROBIN_HOOD };
+		for (int type : types) {
+			HashMap<Integer, Integer> a = new HashMap<Integer, Integer>(4, type, 0.5, 0.1, HashMap.POWER_OF_TWO_CAPACITY);
+			java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<Integer, Integer>();
+			java.util.Random random = new java.util.Random(271506);
+			for (int i = 0; i < 20000; i++) {
+				int key = random.nextInt(1000) * 128;
+				if (random.nextBoolean())
+					assertEquals(expected.put(key, i), a.put(key, i));
+				else
+					assertEquals(expected.remove(key), a.remove(key));
+			}
+			assertEquals(expected.size(), a.size());
+			for (int key = 0; key < 1000; key++) {
+				assertEquals(expected.get(key * 128), a.get(key * 128));
+			}
+		}
+	}
+}
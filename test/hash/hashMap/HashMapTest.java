@@ -81,4 +81,22 @@ public class HashMapTest {
 
 	}
 
+	@Test
+	public void resizingKeepsEntries() throws Exception {
+		HashMap<String, Integer> a = new HashMap<String, Integer>(5, HashMap.DOUBLE_HASHING, 0.5, 0.1);
+		for (int i = 0; i < 1000; i++) {
+			a.put("k" + i, i);
+		}
+		assertEquals(true, a.getLF() <= 0.5);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(true, a.search("k" + i));
+		}
+		for (int i = 0; i < 990; i++) {
+			a.remove("k" + i);
+		}
+		assertEquals(false, a.search("k0"));
+		assertEquals(true, a.search("k995"));
+		assertEquals(true, a.getLF() <= 0.5);
+	}
+
 }
@@ -5,7 +5,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ HashTableTest.class, HashTest.class })
+@SuiteClasses({ BulkOperationsTest.class, ConcurrentHashTableTest.class, HashTableMetricsTest.class, HashTableTest.class, HashTest.class, MappedHashTableTest.class, PowerOfTwoCapacityTest.class, PrimitiveHashTableTest.class, ResizeTest.class, RobinHoodTest.class, SingleProbeTest.class, TombstoneTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,106 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+
+public class BulkOperationsTest {
+
+	@Test
+	public void testAddAll() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(7, HashTable.QUADRATIC_PROBING, 0.5);
+		a.add(3);
+		a.setMetricsEnabled(true);
+		List<Integer> elements = new ArrayList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			elements.add(i % 3000);
+		}
+		assertTrue(a.addAll(elements));
+		assertEquals(3000, a.size());
+		// Resized once for all the elements
+		assertEquals(1, a.getMetrics().getResizes());
+		assertTrue(a.getLF() <= 0.5);
+		for (int i = 0; i < 3000; i++) {
+			assertTrue(a.search(i));
+		}
+		assertFalse(a.addAll(Arrays.asList(1, 2, 3)));
+		assertFalse(a.addAll(new ArrayList<Integer>()));
+	}
+
+	@Test
+	public void testAddAllUnknownSize() throws Exception {
+		// Concurrent collections may report a smaller size than they iterate
+		ConcurrentLinkedQueue<Integer> elements = new ConcurrentLinkedQueue<Integer>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public int size() {
+				return 0;
+			}
+		};
+		for (int i = 0; i < 100; i++) {
+			elements.add(i);
+		}
+		HashTable<Integer> a = new HashTable<Integer>(7, HashTable.LINEAR_PROBING, 0.5);
+		assertTrue(a.addAll(elements));
+		assertEquals(100, a.size());
+	}
+
+	@Test
+	public void testEnsureCapacity() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(7, HashTable.LINEAR_PROBING, 0.5);
+		a.ensureCapacity(10);
+		assertEquals(23, a.toString().split(" - ").length);
+		// Never shrinks
+		a.ensureCapacity(1);
+		assertEquals(23, a.toString().split(" - ").length);
+	}
+
+	@Test
+	public void testBuilder() throws Exception {
+		HashTable<String> a = new HashTable.Builder<String>().expectedSize(100).maxLF(0.5)
+				.capacityType(HashTable.POWER_OF_TWO_CAPACITY).build();
+		assertEquals(256, a.toString().split(" - ").length);
+
+		HashTable<String> b = new HashTable.Builder<String>().redispersionType(HashTable.ROBIN_HOOD)
+				.build(Arrays.asList("a", "b", "a", "c"));
+		assertEquals(3, b.size());
+		assertTrue(b.search("c"));
+		b.remove("a");
+		assertFalse(b.search("a"));
+	}
+
+	@Test
+	public void testParallelDeduplication() throws Exception {
+		int distinct = HashTable.Builder.PARALLEL_THRESHOLD + 1000;
+		List<Integer> elements = new ArrayList<Integer>();
+		for (int i = 0; i < distinct * 2; i++) {
+			elements.add(i % distinct);
+		}
+		int[] types = { HashTable.LINEAR_PROBING, HashTable.DOUBLE_HASHING, HashTable.ROBIN_HOOD };
+		for (int type : types) {
+			HashTable<Integer> a = new HashTable.Builder<Integer>().redispersionType(type).maxLF(0.7)
+					.parallelDeduplication(true).build(elements);
+			assertEquals(distinct, a.size());
+			assertTrue(a.getLF() <= 0.7);
+			for (int i = 0; i < distinct; i++) {
+				assertTrue(a.search(i));
+			}
+			assertFalse(a.search(distinct));
+			assertTrue(a.addIfAbsent(distinct));
+			assertFalse(a.addIfAbsent(0));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullElement() throws Exception {
+		new HashTable.Builder<Integer>().build(Arrays.asList(1, null));
+	}
+}
@@ -0,0 +1,104 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ConcurrentHashTableTest {
+
+	@Test
+	public void testSingleThread() throws Exception {
+		int[] types = { HashTable.LINEAR_PROBING, HashTable.QUADRATIC_PROBING, HashTable.DOUBLE_HASHING,
+				HashTable.ROBIN_HOOD };
+		for (int type : types) {
+			Random random = new Random(271506);
+			ConcurrentHashTable<Integer> a = new ConcurrentHashTable<Integer>(8, type, 0.5, 0.1, 4);
+			Set<Integer> expected = new HashSet<Integer>();
+			for (int i = 0; i < 20000; i++) {
+				int element = random.nextInt(2000) - 1000;
+				if (random.nextBoolean())
+					assertEquals(expected.add(element), a.addIfAbsent(element));
+				else
+					assertEquals(expected.remove(element), a.removeIfPresent(element));
+			}
+			assertEquals(expected.size(), a.size());
+			for (int element = -1000; element < 1000; element++) {
+				assertEquals(expected.contains(element), a.search(element));
+			}
+		}
+	}
+
+	@Test
+	public void testSegments() throws Exception {
+		assertEquals(16, new ConcurrentHashTable<Integer>(7, HashTable.LINEAR_PROBING, 0.5).getNumberOfSegments());
+		ConcurrentHashTable<Integer> single = new ConcurrentHashTable<Integer>(7, HashTable.LINEAR_PROBING, 0.5, 0, 1);
+		assertEquals(1, single.getNumberOfSegments());
+		single.add(3);
+		single.add(-3);
+		assertTrue(single.search(-3));
+		single.remove(3);
+		assertFalse(single.search(3));
+		assertEquals(1, single.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicatedElement() throws Exception {
+		ConcurrentHashTable<String> a = new ConcurrentHashTable<String>(7, HashTable.DOUBLE_HASHING, 0.5);
+		a.add("a");
+		a.add("a");
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+		final ConcurrentHashTable<Integer> a = new ConcurrentHashTable<Integer>(16, HashTable.LINEAR_PROBING, 0.7);
+		final int threads = 8;
+		final int perThread = 5000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int t = 0; t < threads; t++) {
+				final int first = t * perThread;
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						int found = 0;
+						for (int i = first; i < first + perThread; i++) {
+							a.add(i);
+							// Elements of other threads are searched while being added
+							if (a.search((i * 7) % (threads * perThread)))
+								found++;
+						}
+						// Odd elements removed again, even ones stay
+						for (int i = first + 1; i < first + perThread; i += 2) {
+							a.remove(i);
+						}
+						return found;
+					}
+				}));
+			}
+			for (Future<Integer> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threads * perThread / 2, a.size());
+		for (int i = 0; i < threads * perThread; i++) {
+			assertEquals(i % 2 == 0, a.search(i));
+		}
+		assertTrue(a.getNumberOfCollision() >= 0);
+	}
+}
@@ -0,0 +1,109 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HashTableMetricsTest {
+
+	@Test
+	public void testDisabledByDefault() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(7, HashTable.LINEAR_PROBING, 0.5);
+		a.add(1);
+		assertSame(HashTableMetrics.NO_OP, a.getMetrics());
+		assertEquals(0, a.getMetrics().getOperations(HashTableMetrics.ADD));
+		assertEquals(0.0, a.getMetrics().getLF(), 0.0);
+	}
+
+	@Test
+	public void testOperations() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(11, HashTable.LINEAR_PROBING, 0.5);
+		a.setMetricsEnabled(true);
+		a.add(0);
+		a.add(11);
+		a.add(22);
+		assertTrue(a.search(22));
+		assertFalse(a.search(33));
+		a.remove(11);
+
+		HashTableMetrics metrics = a.getMetrics();
+		assertEquals(3, metrics.getOperations(HashTableMetrics.ADD));
+		assertEquals(2, metrics.getOperations(HashTableMetrics.SEARCH));
+		assertEquals(1, metrics.getOperations(HashTableMetrics.REMOVE));
+		// 0, 11 and 22 share their first f value
+		assertEquals(0 + 1 + 2, metrics.getCollisions(HashTableMetrics.ADD));
+		assertEquals(2 + 3, metrics.getCollisions(HashTableMetrics.SEARCH));
+		assertEquals(1.0, metrics.getMeanProbeLength(HashTableMetrics.ADD), 0.0);
+
+		long[] histogram = new long[HashTableMetrics.PROBE_BUCKETS];
+		histogram[0] = 1;
+		histogram[1] = 1;
+		histogram[2] = 1;
+		assertArrayEquals(histogram, metrics.getProbeHistogram(HashTableMetrics.ADD));
+
+		assertEquals(2.0 / 11, metrics.getLF(), 0.0);
+		assertEquals(1.0 / 11, metrics.getTombstoneRatio(), 0.0);
+		assertEquals(0, metrics.getResizes());
+	}
+
+	@Test
+	public void testMoves() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(11, HashTable.ROBIN_HOOD, 0.9);
+		a.setMetricsEnabled(true);
+		a.add(0);
+		a.add(1);
+		// 11 collides with 0 and takes the node of 1, which is moved one node on
+		a.add(11);
+		// 11 and 1 are moved back
+		a.remove(0);
+
+		HashTableMetrics metrics = a.getMetrics();
+		assertEquals(1, metrics.getMoves(HashTableMetrics.ADD));
+		assertEquals(1 + 1, metrics.getCollisions(HashTableMetrics.ADD));
+		assertEquals(2, metrics.getMoves(HashTableMetrics.REMOVE));
+		assertEquals(2, metrics.getCollisions(HashTableMetrics.REMOVE));
+		assertEquals(1 + 1 + 2, a.getNumberOfCollision());
+
+		long[] histogram = new long[HashTableMetrics.PROBE_BUCKETS];
+		histogram[0] = 2;
+		histogram[1] = 1;
+		assertArrayEquals(histogram, metrics.getProbeHistogram(HashTableMetrics.ADD));
+		assertTrue(a.search(1));
+		assertTrue(a.search(11));
+	}
+
+	@Test
+	public void testResizes() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(5, HashTable.DOUBLE_HASHING, 0.5, 0.1);
+		a.setMetricsEnabled(true);
+		for (int i = 0; i < 100; i++) {
+			a.add(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			a.remove(i);
+		}
+		HashTableMetrics metrics = a.getMetrics();
+		assertTrue(metrics.getResizes() > 4);
+		assertTrue(metrics.getResizeNanos() > 0);
+		assertEquals(0.0, metrics.getLF(), 0.0);
+
+		// Long probes are counted in the last bucket
+		HashTable<Integer> b = new HashTable<Integer>(101, HashTable.LINEAR_PROBING, 1.0);
+		b.setMetricsEnabled(true);
+		for (int i = 0; i < 40; i++) {
+			b.add(i * 101);
+		}
+		long[] histogram = b.getMetrics().getProbeHistogram(HashTableMetrics.ADD);
+		assertEquals(40 - (HashTableMetrics.PROBE_BUCKETS - 1), histogram[HashTableMetrics.PROBE_BUCKETS - 1]);
+
+		b.getMetrics().reset();
+		assertEquals(0, b.getMetrics().getOperations(HashTableMetrics.ADD));
+		b.setMetricsEnabled(false);
+		b.search(0);
+		assertEquals(0, b.getMetrics().getOperations(HashTableMetrics.SEARCH));
+	}
+}
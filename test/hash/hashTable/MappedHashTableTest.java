@@ -0,0 +1,185 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedHashTableTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReopen() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("table");
+		MappedHashTable<Integer> a = MappedHashTable.create(file, KeyCodec.INTEGER, 7, HashTable.LINEAR_PROBING, 0.5);
+		for (int i = 0; i < 1000; i++) {
+			a.add(i * 3);
+		}
+		a.remove(0);
+		assertFalse(a.addIfAbsent(3));
+		a.close();
+
+		MappedHashTable<Integer> b = MappedHashTable.open(file, KeyCodec.INTEGER);
+		assertEquals(999, b.size());
+		assertTrue(b.getLF() <= 0.5);
+		assertFalse(b.search(0));
+		for (int i = 1; i < 1000; i++) {
+			assertTrue(b.search(i * 3));
+			assertFalse(b.search(i * 3 + 1));
+		}
+		// Resizes leave only the file of the last generation behind
+		assertEquals(1, folder.getRoot().list().length);
+		b.close();
+	}
+
+	@Test
+	public void testRandomOperations() throws Exception {
+		int[] types = { HashTable.LINEAR_PROBING, HashTable.QUADRATIC_PROBING, HashTable.DOUBLE_HASHING };
+		for (int type : types) {
+			Path file = folder.newFile().toPath();
+			Random random = new Random(271506);
+			Set<Long> expected = new HashSet<Long>();
+			try (MappedHashTable<Long> a = MappedHashTable.create(file, KeyCodec.LONG, 11, type, 0.7)) {
+				for (int i = 0; i < 20000; i++) {
+					long element = random.nextInt(2000) - 1000L << 33;
+					if (random.nextBoolean())
+						assertEquals(expected.add(element), a.addIfAbsent(element));
+					else
+						assertEquals(expected.remove(element), a.removeIfPresent(element));
+				}
+				assertEquals(expected.size(), a.size());
+				final Set<Long> stored = new HashSet<Long>();
+				a.forEach(stored::add);
+				assertEquals(expected, stored);
+			}
+		}
+	}
+
+	@Test
+	public void testStrings() throws Exception {
+		Path file = folder.newFile().toPath();
+		try (MappedHashTable<String> a = MappedHashTable.create(file, KeyCodec.string(8), 5, HashTable.DOUBLE_HASHING,
+				0.5)) {
+			a.add("");
+			a.add("ñandú");
+			a.add("hash");
+			assertTrue(a.search("ñandú"));
+			assertTrue(a.search(""));
+			assertFalse(a.search("hash\0"));
+			List<String> elements = new ArrayList<String>();
+			a.forEach(elements::add);
+			assertEquals(3, elements.size());
+			assertTrue(elements.contains("ñandú"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testKeyTooLong() throws Exception {
+		try (MappedHashTable<String> a = MappedHashTable.create(folder.newFile().toPath(), KeyCodec.string(3), 5,
+				HashTable.LINEAR_PROBING, 0.5)) {
+			a.add("four");
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testDifferentKeyWidth() throws Exception {
+		Path file = folder.newFile().toPath();
+		MappedHashTable.create(file, KeyCodec.INTEGER, 5, HashTable.LINEAR_PROBING, 0.5).close();
+		MappedHashTable.open(file, KeyCodec.LONG);
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotATable() throws Exception {
+		Path file = folder.newFile().toPath();
+		Files.write(file, new byte[100]);
+		MappedHashTable.open(file, KeyCodec.INTEGER);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedTable() throws Exception {
+		Path file = folder.newFile().toPath();
+		MappedHashTable.create(file, KeyCodec.INTEGER, 101, HashTable.LINEAR_PROBING, 0.5).close();
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+		MappedHashTable.open(file, KeyCodec.INTEGER);
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownRedispersionType() throws Exception {
+		Path file = folder.newFile().toPath();
+		MappedHashTable.create(file, KeyCodec.INTEGER, 11, HashTable.LINEAR_PROBING, 0.5).close();
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[15] = (byte) HashTable.ROBIN_HOOD; // Last byte of the big endian type
+		Files.write(file, bytes);
+		MappedHashTable.open(file, KeyCodec.INTEGER);
+	}
+
+	@Test
+	public void testIncompleteGeneration() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("table");
+		MappedHashTable<Integer> a = MappedHashTable.create(file, KeyCodec.INTEGER, 7, HashTable.LINEAR_PROBING, 0.5);
+		a.add(1);
+		a.close();
+		// Generation left by a rebuild interrupted before writing its magic number
+		Path incomplete = folder.getRoot().toPath().resolve("table.1");
+		Files.write(incomplete, new byte[100]);
+
+		MappedHashTable<Integer> b = MappedHashTable.open(file, KeyCodec.INTEGER);
+		assertTrue(b.search(1));
+		assertFalse(Files.exists(incomplete));
+		for (int i = 2; i <= 10; i++) {
+			b.add(i);
+		}
+		b.close();
+
+		MappedHashTable<Integer> c = MappedHashTable.open(file, KeyCodec.INTEGER);
+		assertEquals(10, c.size());
+		assertFalse(Files.exists(file));
+		c.close();
+	}
+
+	@Test
+	public void testFailedRebuild() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("table");
+		MappedHashTable<Integer> a = MappedHashTable.create(file, KeyCodec.INTEGER, 7, HashTable.LINEAR_PROBING, 0.5);
+		a.add(1);
+		a.add(2);
+		a.add(3);
+		// The new file can not be opened where a directory is
+		Path temporary = folder.getRoot().toPath().resolve("table.1");
+		Files.createDirectory(temporary);
+		try {
+			a.add(4);
+			fail("The table should not be resized");
+		} catch (UncheckedIOException e) {
+			// The element was added before resizing
+		}
+		assertFalse(Files.exists(temporary));
+		assertEquals(4, a.size());
+		a.add(5);
+		a.close();
+
+		MappedHashTable<Integer> b = MappedHashTable.open(file, KeyCodec.INTEGER);
+		for (int i = 1; i <= 5; i++) {
+			assertTrue(b.search(i));
+		}
+		b.close();
+	}
+}
@@ -0,0 +1,126 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import hash.hashMap.HashMap;
+
+public class PowerOfTwoCapacityTest {
+
+	@Test
+	public void testNextPowerOfTwo() {
+		assertEquals(1, HashTable.nextPowerOfTwo(0));
+		assertEquals(1, HashTable.nextPowerOfTwo(1));
+		assertEquals(2, HashTable.nextPowerOfTwo(2));
+		assertEquals(8, HashTable.nextPowerOfTwo(5));
+		assertEquals(16, HashTable.nextPowerOfTwo(16));
+		assertEquals(32, HashTable.nextPowerOfTwo(17));
+	}
+
+	@Test
+	public void testCapacityRounded() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(5, HashTable.LINEAR_PROBING, 0.5, 0, HashTable.POWER_OF_TWO_CAPACITY);
+		assertEquals(8, a.toString().split(" - ").length);
+		for (int i = 0; i < 5; i++) {
+			a.add(i * 8);
+		}
+		// Grown by doubling, not to the next prime
+		assertEquals(16, a.toString().split(" - ").length);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(a.search(i * 8));
+		}
+	}
+
+	@Test
+	public void testRandomOperations() throws Exception {
+		int[] types = { HashTable.LINEAR_PROBING, HashTable.QUADRATIC_PROBING, HashTable.DOUBLE_HASHING,
+				HashTable.ROBIN_HOOD };
+		for (int type : types) {
+			Random random = new Random(271506);
+			HashTable<Integer> a = new HashTable<Integer>(4, type, 0.5, 0.1, HashTable.POWER_OF_TWO_CAPACITY);
+			Set<Integer> expected = new HashSet<Integer>();
+			for (int i = 0; i < 20000; i++) {
+				// Multiples of 64 share their low bits, only the spread tells them apart
+				int element = (random.nextInt(1000) - 500) * 64;
+				if (expected.remove(element))
+					assertTrue(a.removeIfPresent(element));
+				else if (expected.add(element))
+					assertTrue(a.addIfAbsent(element));
+			}
+			for (int element = -500; element < 500; element++) {
+				assertEquals(expected.contains(element * 64), a.search(element * 64));
+			}
+		}
+	}
+
+	@Test
+	public void testWrapAround() throws Exception {
+		// Elements whose first node is one of the last two of a 16 node table, so
+		// their cluster goes round the end of the table
+		List<Integer> cluster = new ArrayList<Integer>();
+		for (int i = 0; cluster.size() < 8; i++) {
+			if ((HashTable.spread(i) & 15) >= 14)
+				cluster.add(i);
+		}
+
+		for (int type : new int[] { HashTable.LINEAR_PROBING, HashTable.ROBIN_HOOD }) {
+			HashTable<Integer> a = new HashTable<Integer>(16, type, 0.9, 0, HashTable.POWER_OF_TWO_CAPACITY);
+			HashMap<Integer, Integer> m = new HashMap<Integer, Integer>(16, type, 0.9, 0,
+					HashMap.POWER_OF_TWO_CAPACITY);
+			if (type == HashTable.LINEAR_PROBING) {
+				a.setBackwardShiftDeletion(true);
+				m.setBackwardShiftDeletion(true);
+			}
+			for (int x : cluster) {
+				a.add(x);
+				m.put(x, -x);
+			}
+			assertEquals(16, a.toString().split(" - ").length);
+
+			// Removing from the start of the cluster moves the rest back over the end
+			for (int round = 0; round < 3; round++) {
+				for (int i = round; i < cluster.size(); i += 2) {
+					a.remove(cluster.get(i));
+					m.remove(cluster.get(i));
+				}
+				for (int i = 0; i < cluster.size(); i++) {
+					boolean contained = i < round || (i - round) % 2 != 0;
+					assertEquals(contained, a.search(cluster.get(i)));
+					assertEquals(contained ? Integer.valueOf(-cluster.get(i)) : null, m.get(cluster.get(i)));
+				}
+				for (int i = round; i < cluster.size(); i += 2) {
+					a.add(cluster.get(i));
+					m.put(cluster.get(i), -cluster.get(i));
+				}
+				assertEquals(cluster.size(), a.size());
+			}
+		}
+	}
+
+	@Test
+	public void testMinValueHashCode() throws Exception {
+		int[] types = { HashTable.LINEAR_PROBING, HashTable.QUADRATIC_PROBING, HashTable.DOUBLE_HASHING,
+				HashTable.ROBIN_HOOD };
+		for (int type : types) {
+			HashTable<Integer> a = new HashTable<Integer>(11, type, 0.7);
+			for (int attempt = 0; attempt < 11; attempt++) {
+				assertTrue(a.f(Integer.MIN_VALUE, attempt) >= 0);
+			}
+			a.add(Integer.MIN_VALUE);
+			a.add(Integer.MAX_VALUE);
+			assertTrue(a.search(Integer.MIN_VALUE));
+			a.remove(Integer.MIN_VALUE);
+			assertFalse(a.search(Integer.MIN_VALUE));
+			assertTrue(a.search(Integer.MAX_VALUE));
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PrimitiveHashTableTest {
+
+	@Test
+	public void testAddInteger() throws Exception {
+		IntHashTable a = new IntHashTable(5, HashTable.LINEAR_PROBING, 1.0);
+		a.add(4);
+		a.add(13);
+		a.add(24);
+		a.add(3);
+		assertEquals(0.8, a.getLF(), 0.01);
+		assertEquals("[0] (1) = 24 - [1] (1) = 3 - [2] (0) = null - [3] (1) = 13 - [4] (1) = 4 - ", a.toString());
+		assertEquals(true, a.search(3));
+		assertEquals(false, a.search(12));
+
+		a.remove(24);
+		assertEquals("[0] (2) = 24 - [1] (1) = 3 - [2] (0) = null - [3] (1) = 13 - [4] (1) = 4 - ", a.toString());
+		a.add(15);
+		assertEquals("[0] (1) = 15 - [1] (1) = 3 - [2] (0) = null - [3] (1) = 13 - [4] (1) = 4 - ", a.toString());
+
+		LongHashTable c = new LongHashTable(5, HashTable.DOUBLE_HASHING, 1.0);
+		c.add(4L);
+		c.add(13L);
+		c.add(24L);
+		c.add(3L);
+		assertEquals("[0] (0) = null - [1] (1) = 3 - [2] (1) = 24 - [3] (1) = 13 - [4] (1) = 4 - ", c.toString());
+		c.remove(24L);
+		assertTrue(c.search(3L));
+		assertFalse(c.search(24L));
+	}
+
+	@Test
+	public void testResizing() throws Exception {
+		IntHashTable a = new IntHashTable(5, HashTable.LINEAR_PROBING, 0.5);
+		a.add(4);
+		a.add(13);
+		a.add(24);
+		assertEquals("[0] (0) = null - [1] (0) = null - [2] (1) = 24 - [3] (1) = 13 - [4] (1) = 4 - [5] (0) = null - [6] (0) = null - [7] (0) = null - [8] (0) = null - [9] (0) = null - [10] (0) = null - ", a.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicated() throws Exception {
+		LongHashTable a = new LongHashTable(5, HashTable.QUADRATIC_PROBING, 0.5);
+		a.add(7L);
+		a.add(7L);
+	}
+
+	@Test
+	public void testSameLayoutThanHashTable() throws Exception {
+		Random random = new Random(271506);
+		for (int type = HashTable.LINEAR_PROBING; type <= HashTable.DOUBLE_HASHING; type++) {
+			HashTable<Integer> boxed = new HashTable<Integer>(7, type, 0.5, 0.2);
+			IntHashTable ints = new IntHashTable(7, type, 0.5, 0.2);
+			LongHashTable longs = new LongHashTable(7, type, 0.5, 0.2);
+			for (int i = 0; i < 500; i++) {
+				int element = random.nextInt(300);
+				if (boxed.search(element)) {
+					boxed.remove(element);
+					ints.remove(element);
+					longs.remove(element);
+				} else {
+					boxed.add(element);
+					ints.add(element);
+					longs.add(element);
+				}
+				assertEquals(boxed.search(i % 300), ints.search(i % 300));
+				assertEquals(boxed.search(i % 300), longs.search(i % 300));
+			}
+			assertEquals(boxed.getLF(), ints.getLF(), 0.0);
+			assertEquals(boxed.getLF(), longs.getLF(), 0.0);
+		}
+	}
+}
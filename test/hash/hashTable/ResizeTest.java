@@ -0,0 +1,51 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ResizeTest {
+
+	@Test
+	public void testGrowing() throws Exception {
+		for (int type = HashTable.LINEAR_PROBING; type <= HashTable.DOUBLE_HASHING; type++) {
+			HashTable<String> a = new HashTable<String>(5, type, 0.5);
+			for (int i = 0; i < 2000; i++) {
+				a.add("e" + i);
+				assertTrue(a.getLF() <= 0.5);
+			}
+			for (int i = 0; i < 2000; i++) {
+				assertTrue(a.search("e" + i));
+			}
+			assertFalse(a.search("e2000"));
+		}
+	}
+
+	@Test
+	public void testShrinkingKeepsMaximumLF() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(5, HashTable.LINEAR_PROBING, 0.5, 0.2);
+		a.add(4);
+		a.add(13);
+		a.add(24);
+		a.remove(4);
+		// Shrinking to 3 would exceed maxLF, so the table is rebuilt with 7 nodes
+		assertEquals(
+				"[0] (0) = null - [1] (0) = null - [2] (0) = null - [3] (1) = 24 - [4] (0) = null - [5] (0) = null - [6] (1) = 13 - ",
+				a.toString());
+
+		for (int i = 100; i < 400; i++) {
+			a.add(i);
+		}
+		for (int i = 100; i < 395; i++) {
+			a.remove(i);
+			assertTrue(a.getLF() <= 0.5);
+		}
+		for (int i = 395; i < 400; i++) {
+			assertTrue(a.search(i));
+		}
+		assertTrue(a.search(13));
+		assertTrue(a.search(24));
+	}
+}
@@ -0,0 +1,73 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RobinHoodTest {
+
+	@Test
+	public void testPlacement() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(11, HashTable.ROBIN_HOOD, 1.0);
+		assertEquals(1, a.f(12, 0));
+		assertEquals(2, a.f(12, 1));
+		a.add(1);
+		a.add(12);
+		a.add(2);
+		// 23 is further from its first node than 2, so it takes its node
+		a.add(23);
+		assertEquals("[0] (0) = null - [1] (1) = 1 - [2] (1) = 12 - [3] (1) = 23 - [4] (1) = 2 - [5] (0) = null - [6] (0) = null - [7] (0) = null - [8] (0) = null - [9] (0) = null - [10] (0) = null - ",
+				a.toString());
+
+		// Removals move the cluster back, no DELETED nodes are left
+		a.remove(12);
+		assertEquals("[0] (0) = null - [1] (1) = 1 - [2] (1) = 23 - [3] (1) = 2 - [4] (0) = null - [5] (0) = null - [6] (0) = null - [7] (0) = null - [8] (0) = null - [9] (0) = null - [10] (0) = null - ",
+				a.toString());
+		assertTrue(a.search(2));
+		assertFalse(a.search(12));
+	}
+
+	@Test
+	public void testRandomOperations() throws Exception {
+		Random random = new Random(271506);
+		HashTable<Integer> a = new HashTable<Integer>(7, HashTable.ROBIN_HOOD, 0.85, 0.2);
+		Set<Integer> expected = new HashSet<Integer>();
+		for (int i = 0; i < 20000; i++) {
+			int element = random.nextInt(2000) - 1000;
+			if (expected.remove(element))
+				assertTrue(a.removeIfPresent(element));
+			else if (expected.add(element))
+				assertTrue(a.addIfAbsent(element));
+		}
+		for (int element = -1000; element < 1000; element++) {
+			assertEquals(expected.contains(element), a.search(element));
+		}
+		assertFalse(a.toString().contains("(2)"));
+	}
+
+	@Test
+	public void testMissesStopEarly() throws Exception {
+		Random random = new Random(271506);
+		HashTable<Integer> linear = new HashTable<Integer>(10007, HashTable.LINEAR_PROBING, 0.9);
+		HashTable<Integer> robinHood = new HashTable<Integer>(10007, HashTable.ROBIN_HOOD, 0.9);
+		while (robinHood.getLF() < 0.85) {
+			int element = random.nextInt();
+			if (robinHood.addIfAbsent(element))
+				linear.add(element);
+		}
+
+		long linearBefore = linear.getNumberOfCollision();
+		long robinHoodBefore = robinHood.getNumberOfCollision();
+		for (int i = 0; i < 10000; i++) {
+			int element = random.nextInt();
+			assertEquals(linear.search(element), robinHood.search(element));
+		}
+		assertTrue(robinHood.getNumberOfCollision() - robinHoodBefore < linear.getNumberOfCollision() - linearBefore);
+	}
+}
@@ -0,0 +1,51 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SingleProbeTest {
+
+	@Test
+	public void testAddIfAbsent() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(5, HashTable.LINEAR_PROBING, 1.0);
+		assertTrue(a.addIfAbsent(4));
+		assertTrue(a.addIfAbsent(13));
+		assertTrue(a.addIfAbsent(24));
+		assertFalse(a.addIfAbsent(24));
+		assertTrue(a.addIfAbsent(3));
+		assertEquals("[0] (1) = 24 - [1] (1) = 3 - [2] (0) = null - [3] (1) = 13 - [4] (1) = 4 - ", a.toString());
+
+		assertTrue(a.removeIfPresent(24));
+		assertFalse(a.removeIfPresent(24));
+		assertFalse(a.removeIfPresent(12));
+		// 3 is behind the DELETED node, it is found before reusing the node
+		assertFalse(a.addIfAbsent(3));
+		assertEquals("[0] (2) = 24 - [1] (1) = 3 - [2] (0) = null - [3] (1) = 13 - [4] (1) = 4 - ", a.toString());
+		// First DELETED node of the sequence is reused
+		assertTrue(a.addIfAbsent(15));
+		assertEquals("[0] (1) = 15 - [1] (1) = 3 - [2] (0) = null - [3] (1) = 13 - [4] (1) = 4 - ", a.toString());
+	}
+
+	@Test
+	public void testPrimitiveTables() throws Exception {
+		IntHashTable a = new IntHashTable(5, HashTable.DOUBLE_HASHING, 1.0);
+		assertTrue(a.addIfAbsent(4));
+		assertFalse(a.addIfAbsent(4));
+		assertTrue(a.removeIfPresent(4));
+		assertFalse(a.removeIfPresent(4));
+		assertEquals(0, a.size());
+
+		LongHashTable b = new LongHashTable(5, HashTable.QUADRATIC_PROBING, 0.5, 0.1);
+		for (long i = 0; i < 100; i++) {
+			assertTrue(b.addIfAbsent(i * 31));
+		}
+		for (long i = 0; i < 100; i++) {
+			assertFalse(b.addIfAbsent(i * 31));
+			assertTrue(b.removeIfPresent(i * 31));
+		}
+		assertEquals(0, b.size());
+	}
+}
@@ -0,0 +1,87 @@
+package hash.hashTable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TombstoneTest {
+
+	@Test
+	public void testChurnCleansDeletedNodes() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(11, HashTable.QUADRATIC_PROBING, 0.5);
+		for (int i = 0; i < 5; i++) {
+			a.add(i);
+		}
+		// Every element removed leaves a DELETED node, the table is rebuilt before
+		// searches go through the whole table
+		for (int i = 5; i < 1000; i++) {
+			a.add(i);
+			a.remove(i - 5);
+		}
+		String str = a.toString();
+		int nodes = str.split("\\[").length - 1;
+		int deleted = str.split("\\(2\\)").length - 1;
+		// Valid and DELETED nodes together never exceed maxLF, and the table has not
+		// grown because of the churn
+		assertTrue(deleted + 5 <= nodes * 0.5);
+		assertTrue(nodes < 50);
+		for (int i = 995; i < 1000; i++) {
+			assertTrue(a.search(i));
+		}
+		assertFalse(a.search(994));
+	}
+
+	@Test
+	public void testBackwardShift() throws Exception {
+		HashTable<Integer> a = new HashTable<Integer>(11, HashTable.LINEAR_PROBING, 1.0);
+		a.setBackwardShiftDeletion(true);
+		a.add(1);
+		a.add(12);
+		a.add(23);
+		a.add(2);
+		a.add(10);
+		a.add(21);
+		assertEquals("[0] (1) = 21 - [1] (1) = 1 - [2] (1) = 12 - [3] (1) = 23 - [4] (1) = 2 - [5] (0) = null - [6] (0) = null - [7] (0) = null - [8] (0) = null - [9] (0) = null - [10] (1) = 10 - ",
+				a.toString());
+
+		a.remove(10);
+		// 21 moves back to its first node, the others stay as 0 is not in their way
+		assertEquals("[0] (0) = null - [1] (1) = 1 - [2] (1) = 12 - [3] (1) = 23 - [4] (1) = 2 - [5] (0) = null - [6] (0) = null - [7] (0) = null - [8] (0) = null - [9] (0) = null - [10] (1) = 21 - ",
+				a.toString());
+		a.remove(1);
+		assertEquals("[0] (0) = null - [1] (1) = 12 - [2] (1) = 23 - [3] (1) = 2 - [4] (0) = null - [5] (0) = null - [6] (0) = null - [7] (0) = null - [8] (0) = null - [9] (0) = null - [10] (1) = 21 - ",
+				a.toString());
+		assertTrue(a.search(2));
+		assertTrue(a.search(21));
+	}
+
+	@Test
+	public void testBackwardShiftRandom() throws Exception {
+		Random random = new Random(271506);
+		HashTable<Integer> a = new HashTable<Integer>(7, HashTable.LINEAR_PROBING, 0.7, 0.2);
+		a.setBackwardShiftDeletion(true);
+		Set<Integer> expected = new HashSet<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			int element = random.nextInt(200) - 100;
+			if (expected.remove(element))
+				a.remove(element);
+			else if (expected.add(element))
+				a.add(element);
+			assertFalse(a.toString().contains("(2)"));
+		}
+		for (int element = -100; element < 100; element++) {
+			assertEquals(expected.contains(element), a.search(element));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBackwardShiftNeedsLinearProbing() throws Exception {
+		new HashTable<Integer>(7, HashTable.DOUBLE_HASHING, 0.5).setBackwardShiftDeletion(true);
+	}
+}